@@ -0,0 +1,97 @@
+package com.oocl.cultivation.benchmark;
+
+import com.oocl.cultivation.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParkAndFetchBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"PARKING_BOY", "SMART_PARKING_BOY", "SUPER_SMART_PARKING_BOY", "PARKING_MANAGER"})
+    public String parkingPerson;
+
+    @Param({"PARKING_LOT", "CONCURRENT_PARKING_LOT", "SLOT_ARRAY_PARKING_LOT"})
+    public String parkingLotKind;
+
+    @Param({"1", "10000"})
+    public int lotCount;
+
+    @Param({"10", "1000"})
+    public int capacity;
+
+    @Param({"0.0", "0.9"})
+    public double fillLevel;
+
+    private Function<Car, ParkingTicket> park;
+    private Function<ParkingTicket, Car> fetch;
+    private Function<List<Car>, List<ParkingResult<ParkingTicket>>> parkAll;
+    private Function<List<ParkingTicket>, List<ParkingResult<Car>>> fetchAll;
+    private final Car car = new Car();
+    private final List<Car> cars = new ArrayList<>();
+    private int batchSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParkingLot[] parkingLots = ParkingLots.filled(parkingLotKind, lotCount, capacity, fillLevel);
+        switch (parkingPerson) {
+            case "PARKING_BOY":
+                useParkingBoy(new ParkingBoy(parkingLots));
+                break;
+            case "SMART_PARKING_BOY":
+                useParkingBoy(new SmartParkingBoy(parkingLots));
+                break;
+            case "SUPER_SMART_PARKING_BOY":
+                useParkingBoy(new SuperSmartParkingBoy(parkingLots));
+                break;
+            default:
+                ParkingManager parkingManager = new ParkingManager(parkingLots);
+                park = parkingManager::park;
+                fetch = parkingManager::fetch;
+                parkAll = parkingManager::parkAll;
+                fetchAll = parkingManager::fetchAll;
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            cars.add(new Car());
+        }
+        int availablePositions = 0;
+        for (ParkingLot parkingLot : parkingLots) {
+            availablePositions += parkingLot.getAvailableParkingPosition();
+        }
+        batchSize = Math.min(BATCH_SIZE, availablePositions);
+    }
+
+    @Benchmark
+    public Car parkThenFetch() {
+        return fetch.apply(park.apply(car));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<ParkingResult<Car>> parkAllThenFetchAll() {
+        List<ParkingResult<Car>> fetchResults = null;
+        for (int parked = 0; parked < BATCH_SIZE; parked += batchSize) {
+            List<ParkingResult<ParkingTicket>> parkingResults = parkAll.apply(cars.subList(parked, Math.min(BATCH_SIZE, parked + batchSize)));
+            List<ParkingTicket> tickets = new ArrayList<>(parkingResults.size());
+            for (ParkingResult<ParkingTicket> parkingResult : parkingResults) {
+                tickets.add(parkingResult.getValue());
+            }
+            fetchResults = fetchAll.apply(tickets);
+        }
+        return fetchResults;
+    }
+
+    private void useParkingBoy(ParkingBoy parkingBoy) {
+        park = parkingBoy::park;
+        fetch = parkingBoy::fetch;
+        parkAll = parkingBoy::parkAll;
+        fetchAll = parkingBoy::fetchAll;
+    }
+}
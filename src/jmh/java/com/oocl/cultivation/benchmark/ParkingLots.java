@@ -0,0 +1,37 @@
+package com.oocl.cultivation.benchmark;
+
+import com.oocl.cultivation.Car;
+import com.oocl.cultivation.ConcurrentParkingLot;
+import com.oocl.cultivation.ParkingLot;
+import com.oocl.cultivation.SlotArrayParkingLot;
+
+final class ParkingLots {
+
+    private ParkingLots() {
+    }
+
+    static ParkingLot[] filled(String parkingLotKind, int lotCount, int capacity, double fillLevel) {
+        ParkingLot[] parkingLots = new ParkingLot[lotCount];
+        int parkedCars = (int) Math.min(capacity - 1, Math.round(capacity * fillLevel));
+        for (int index = 0; index < lotCount; index++) {
+            parkingLots[index] = create(parkingLotKind, capacity);
+            for (int car = 0; car < parkedCars; car++) {
+                parkingLots[index].parkCar(new Car());
+            }
+        }
+        return parkingLots;
+    }
+
+    private static ParkingLot create(String parkingLotKind, int capacity) {
+        switch (parkingLotKind) {
+            case "PARKING_LOT":
+                return new ParkingLot(capacity);
+            case "CONCURRENT_PARKING_LOT":
+                return new ConcurrentParkingLot(capacity);
+            case "SLOT_ARRAY_PARKING_LOT":
+                return new SlotArrayParkingLot(capacity);
+            default:
+                throw new IllegalArgumentException("Unknown parking lot kind: " + parkingLotKind);
+        }
+    }
+}
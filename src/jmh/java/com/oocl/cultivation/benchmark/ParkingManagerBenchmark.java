@@ -0,0 +1,47 @@
+package com.oocl.cultivation.benchmark;
+
+import com.oocl.cultivation.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParkingManagerBenchmark {
+
+    @Param({"PARKING_LOT", "CONCURRENT_PARKING_LOT", "SLOT_ARRAY_PARKING_LOT"})
+    public String parkingLotKind;
+
+    @Param({"1", "10000"})
+    public int lotCount;
+
+    @Param({"10", "1000"})
+    public int capacity;
+
+    @Param({"0.0", "0.9"})
+    public double fillLevel;
+
+    private ParkingManager parkingManager;
+    private ParkingBoy parkingBoy;
+    private final Car car = new Car();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parkingManager = new ParkingManager();
+        parkingBoy = new SmartParkingBoy(ParkingLots.filled(parkingLotKind, lotCount, capacity, fillLevel));
+        parkingManager.manage(parkingBoy);
+    }
+
+    @Benchmark
+    public Car tellParkingBoyToParkThenFetch() {
+        ParkingTicket ticket = parkingManager.tellParkingBoyToPark(parkingBoy, car);
+        return parkingManager.tellParkingBoyToFetch(parkingBoy, ticket);
+    }
+
+    @Benchmark
+    public Car tellParkingBoyToTryParkThenTryFetch() {
+        ParkingTicket ticket = parkingManager.tellParkingBoyToTryPark(parkingBoy, car).getValue();
+        return parkingManager.tellParkingBoyToTryFetch(parkingBoy, ticket).getValue();
+    }
+}
@@ -0,0 +1,37 @@
+package com.oocl.cultivation.benchmark;
+
+import com.oocl.cultivation.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(Threads.MAX)
+public class ShardedParkingManagerBenchmark {
+
+    @Param({"PARKING_LOT", "CONCURRENT_PARKING_LOT", "SLOT_ARRAY_PARKING_LOT"})
+    public String parkingLotKind;
+
+    @Param({"1", "4", "16"})
+    public int shardCount;
+
+    @Param({"0.5"})
+    public double fillLevel;
+
+    private ShardedParkingManager parkingManager;
+    private final Car car = new Car();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parkingManager = new ShardedParkingManager(shardCount, ParkingLots.filled(parkingLotKind, 64, 1000, fillLevel));
+    }
+
+    @Benchmark
+    public Car parkThenFetch() {
+        ParkingTicket ticket = parkingManager.park(ThreadLocalRandom.current().nextInt(), car).getValue();
+        return parkingManager.fetch(ticket).getValue();
+    }
+}
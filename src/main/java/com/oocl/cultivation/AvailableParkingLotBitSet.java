@@ -0,0 +1,44 @@
+package com.oocl.cultivation;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+class AvailableParkingLotBitSet {
+
+    private final List<ParkingLot> parkingLots;
+    private final BitSet availableParkingLots;
+    private final ParkingLotListener[] listeners;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    AvailableParkingLotBitSet(List<ParkingLot> parkingLots) {
+        this.parkingLots = parkingLots;
+        this.availableParkingLots = new BitSet(parkingLots.size());
+        this.listeners = new ParkingLotListener[parkingLots.size()];
+        for (int index = 0; index < parkingLots.size(); index++) {
+            ParkingLot parkingLot = parkingLots.get(index);
+            update(index);
+            final int lotIndex = index;
+            listeners[index] = changedParkingLot -> update(lotIndex);
+            parkingLot.addWeakListener(listeners[index]);
+        }
+    }
+
+    int first() {
+        lock.lock();
+        try {
+            return availableParkingLots.nextSetBit(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void update(int lotIndex) {
+        lock.lock();
+        try {
+            availableParkingLots.set(lotIndex, parkingLots.get(lotIndex).getAvailableParkingPosition() > 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.oocl.cultivation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ConcurrentParkingLot extends ParkingLot {
+    private static final long NO_FREE_SLOT = 0;
+
+    private final AtomicInteger parkedCars = new AtomicInteger();
+    private final AtomicReferenceArray<Car> cars;
+    private final AtomicIntegerArray nextFreeSlots;
+    private final AtomicLong freeSlotsHead = new AtomicLong(NO_FREE_SLOT);
+    private final AtomicInteger unusedSlot = new AtomicInteger();
+    private final AtomicIntegerArray generations;
+
+    public ConcurrentParkingLot() {
+        this(10);
+    }
+
+    public ConcurrentParkingLot(int capacity) {
+        super(capacity);
+        this.cars = new AtomicReferenceArray<>(capacity);
+        this.nextFreeSlots = new AtomicIntegerArray(capacity);
+        this.generations = new AtomicIntegerArray(capacity);
+    }
+
+    @Override
+    public int getAvailableParkingPosition() {
+        return getCapacity() - parkedCars.get();
+    }
+
+    @Override
+    protected boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    protected ParkingTicket storeCar(Car car, ParkingPerson issuer, int parkingLotIndex) {
+        if (!claimParkingPosition()) {
+            return null;
+        }
+        int freeSlot = popFreeSlot();
+        int slot = freeSlot < 0 ? unusedSlot.getAndIncrement() : freeSlot;
+        int generation = generations.incrementAndGet(slot);
+        cars.set(slot, car);
+        return issueTicket(issuer, parkingLotIndex, slot, generation);
+    }
+
+    @Override
+    protected Car releaseCar(ParkingTicket ticket) {
+        if (!isIssuedByThisParkingLot(ticket)
+                || !generations.compareAndSet(ticket.getSlot(), ticket.getGeneration(), ticket.getGeneration() + 1)) {
+            return null;
+        }
+        Car returnCar = cars.getAndSet(ticket.getSlot(), null);
+        pushFreeSlot(ticket.getSlot());
+        parkedCars.decrementAndGet();
+        return returnCar;
+    }
+
+    @Override
+    protected int replaceCar(int slot, Car car) {
+        cars.set(slot, car);
+        return generations.addAndGet(slot, 2);
+    }
+
+    @Override
+    protected int getGeneration(int slot) {
+        return generations.get(slot);
+    }
+
+    @Override
+    protected void restoreSlots(int[] generations) {
+        freeSlotsHead.set(NO_FREE_SLOT);
+        int parked = 0;
+        for (int slot = generations.length - 1; slot >= 0; slot--) {
+            this.generations.set(slot, generations[slot]);
+            if (generations[slot] % 2 == 0) {
+                cars.set(slot, null);
+                pushFreeSlot(slot);
+            } else {
+                cars.set(slot, new Car());
+                parked++;
+            }
+        }
+        unusedSlot.set(generations.length);
+        parkedCars.set(parked);
+    }
+
+    private boolean claimParkingPosition() {
+        while (true) {
+            int parked = parkedCars.get();
+            if (parked >= getCapacity()) {
+                return false;
+            }
+            if (parkedCars.compareAndSet(parked, parked + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private int popFreeSlot() {
+        while (true) {
+            long head = freeSlotsHead.get();
+            int slot = (int) head - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            int nextSlot = nextFreeSlots.get(slot);
+            if (freeSlotsHead.compareAndSet(head, nextVersionOf(head) | (nextSlot + 1L))) {
+                return slot;
+            }
+        }
+    }
+
+    private void pushFreeSlot(int slot) {
+        while (true) {
+            long head = freeSlotsHead.get();
+            nextFreeSlots.set(slot, (int) head - 1);
+            if (freeSlotsHead.compareAndSet(head, nextVersionOf(head) | (slot + 1L))) {
+                return;
+            }
+        }
+    }
+
+    private static long nextVersionOf(long head) {
+        return ((head >>> 32) + 1) << 32;
+    }
+}
@@ -0,0 +1,116 @@
+package com.oocl.cultivation;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+class IndexedParkingLotHeap {
+
+    private final List<ParkingLot> parkingLots;
+    private final ParkingLotPriority priority;
+    private final int[] heap;
+    private final int[] positions;
+    private final int[] availablePositions;
+    private final int[] capacities;
+    private final ParkingLotListener[] listeners;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    IndexedParkingLotHeap(List<ParkingLot> parkingLots, ParkingLotPriority priority) {
+        this.parkingLots = parkingLots;
+        this.priority = priority;
+        int size = parkingLots.size();
+        this.heap = new int[size];
+        this.positions = new int[size];
+        this.availablePositions = new int[size];
+        this.capacities = new int[size];
+        this.listeners = new ParkingLotListener[size];
+        for (int index = 0; index < size; index++) {
+            ParkingLot parkingLot = parkingLots.get(index);
+            heap[index] = index;
+            positions[index] = index;
+            availablePositions[index] = parkingLot.getAvailableParkingPosition();
+            capacities[index] = parkingLot.getCapacity();
+            final int lotIndex = index;
+            listeners[index] = changedParkingLot -> update(lotIndex);
+            parkingLot.addWeakListener(listeners[index]);
+        }
+        for (int position = size / 2 - 1; position >= 0; position--) {
+            siftDown(position);
+        }
+    }
+
+    int peek() {
+        lock.lock();
+        try {
+            if (heap.length == 0 || availablePositions[heap[0]] <= 0) {
+                return -1;
+            }
+            return heap[0];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void update(int lotIndex) {
+        lock.lock();
+        try {
+            availablePositions[lotIndex] = parkingLots.get(lotIndex).getAvailableParkingPosition();
+            int position = positions[lotIndex];
+            siftUp(position);
+            siftDown(positions[lotIndex]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isHigherPriority(heap[position], heap[parent])) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            int right = left + 1;
+            int highest = position;
+            if (left < heap.length && isHigherPriority(heap[left], heap[highest])) {
+                highest = left;
+            }
+            if (right < heap.length && isHigherPriority(heap[right], heap[highest])) {
+                highest = right;
+            }
+            if (highest == position) {
+                break;
+            }
+            swap(position, highest);
+            position = highest;
+        }
+    }
+
+    private boolean isHigherPriority(int lotIndex, int otherLotIndex) {
+        boolean available = availablePositions[lotIndex] > 0;
+        boolean otherAvailable = availablePositions[otherLotIndex] > 0;
+        if (available != otherAvailable) {
+            return available;
+        }
+        int comparison = priority.compare(availablePositions[lotIndex], capacities[lotIndex],
+                availablePositions[otherLotIndex], capacities[otherLotIndex]);
+        if (comparison != 0) {
+            return comparison > 0;
+        }
+        return lotIndex < otherLotIndex;
+    }
+
+    private void swap(int position, int otherPosition) {
+        int lotIndex = heap[position];
+        heap[position] = heap[otherPosition];
+        heap[otherPosition] = lotIndex;
+        positions[heap[position]] = position;
+        positions[heap[otherPosition]] = otherPosition;
+    }
+}
@@ -0,0 +1,71 @@
+package com.oocl.cultivation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int MAX_MAGNITUDE = 40;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    static final long MAX_TRACKABLE_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private static final int STRIPE_COUNT = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+
+    private final AtomicLongArray[] counts = new AtomicLongArray[STRIPE_COUNT];
+    private final AtomicLong[] maxima = new AtomicLong[STRIPE_COUNT];
+
+    LatencyHistogram() {
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            counts[stripe] = new AtomicLongArray(BUCKET_COUNT);
+            maxima[stripe] = new AtomicLong();
+        }
+    }
+
+    void record(long value) {
+        long trackedValue = Math.min(Math.max(value, 0), MAX_TRACKABLE_VALUE);
+        int stripe = stripeOf(Thread.currentThread().threadId());
+        counts[stripe].getAndIncrement(bucketIndexOf(trackedValue));
+        AtomicLong max = maxima[stripe];
+        long currentMax = max.get();
+        while (trackedValue > currentMax && !max.compareAndSet(currentMax, trackedValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    LatencySnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long max = 0;
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                copy[bucket] += counts[stripe].get(bucket);
+            }
+            max = Math.max(max, maxima[stripe].get());
+        }
+        return new LatencySnapshot(copy, max);
+    }
+
+    private static int stripeOf(long threadId) {
+        long hash = threadId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (STRIPE_COUNT - 1);
+    }
+
+    static int bucketIndexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long lowest = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.oocl.cultivation;
+
+public final class LatencySnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long max;
+
+    LatencySnapshot(long[] counts, long max) {
+        this.counts = counts;
+        this.max = max;
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        this.count = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public long getValueAtPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueOf(bucket), max);
+            }
+        }
+        return max;
+    }
+}
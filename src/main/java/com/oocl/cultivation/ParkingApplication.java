@@ -0,0 +1,80 @@
+package com.oocl.cultivation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class ParkingApplication {
+
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 4096;
+    private static final int DEFAULT_SYNC_BATCH_SIZE = 4096;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        String capacities = "10";
+        int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+        int syncBatchSize = DEFAULT_SYNC_BATCH_SIZE;
+        String writeAheadLogPath = null;
+        String inputPath = null;
+        for (int index = 0; index < args.length; index++) {
+            if (args[index].equals("--lots") && index + 1 < args.length) {
+                capacities = args[++index];
+            } else if (args[index].equals("--flush-every") && index + 1 < args.length) {
+                flushBatchSize = Integer.parseInt(args[++index]);
+            } else if (args[index].equals("--sync-every") && index + 1 < args.length) {
+                syncBatchSize = Integer.parseInt(args[++index]);
+            } else if (args[index].equals("--wal") && index + 1 < args.length) {
+                writeAheadLogPath = args[++index];
+            } else if (inputPath == null && !args[index].startsWith("--")) {
+                inputPath = args[index];
+            } else {
+                System.err.println("usage: parking [--lots 10,10,...] [--flush-every n] [--sync-every n] [--wal path] [commands-file]");
+                System.exit(2);
+            }
+        }
+
+        ParkingLot[] parkingLots = createParkingLots(capacities);
+        WriteAheadLog writeAheadLog = writeAheadLogPath == null ? null : new WriteAheadLog(Paths.get(writeAheadLogPath), syncBatchSize, parkingLots);
+        ParkingCommandProcessor processor = new ParkingCommandProcessor(flushBatchSize, parkingLots);
+        Writer staffLog = writeAheadLogPath == null ? null : restoreStaff(processor, Paths.get(writeAheadLogPath + ".staff"));
+        try (Reader input = inputPath == null
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(inputPath), StandardCharsets.UTF_8);
+             Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE)) {
+            processor.process(input, output);
+        } finally {
+            if (writeAheadLog != null) {
+                staffLog.close();
+                writeAheadLog.close();
+            }
+        }
+    }
+
+    private static Writer restoreStaff(ParkingCommandProcessor processor, Path staffLogPath) throws IOException {
+        if (Files.exists(staffLogPath)) {
+            try (Reader staffCommands = Files.newBufferedReader(staffLogPath, StandardCharsets.UTF_8)) {
+                processor.process(staffCommands, Writer.nullWriter());
+            }
+        }
+        Writer staffLog = Files.newBufferedWriter(staffLogPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        processor.setStaffLog(staffLog);
+        return staffLog;
+    }
+
+    private static ParkingLot[] createParkingLots(String capacities) {
+        String[] values = capacities.split(",");
+        ParkingLot[] parkingLots = new ParkingLot[values.length];
+        for (int index = 0; index < values.length; index++) {
+            parkingLots[index] = new SlotArrayParkingLot(Integer.parseInt(values[index].trim()));
+        }
+        return parkingLots;
+    }
+}
@@ -1,27 +1,31 @@
 package com.oocl.cultivation;
 
-import java.util.*;
-
 public class ParkingBoy extends ParkingPerson{
 
+    private final boolean parksSequentially;
+    private final AvailableParkingLotBitSet availableParkingLots;
+
     public ParkingBoy(ParkingLot... parkingLots) {
+        this(true, parkingLots);
+    }
+
+    protected ParkingBoy(boolean parksSequentially, ParkingLot... parkingLots) {
         super(parkingLots);
+        this.parksSequentially = parksSequentially;
+        this.availableParkingLots = parksSequentially ? new AvailableParkingLotBitSet(this.parkingLots) : null;
+    }
+
+    @Override
+    protected int findAvailableParkingLotIndex() {
+        return findAvailableParkingLotIndexSequentially();
     }
 
-    public ParkingTicket park(Car car) {
-        ParkingLot availableParkingLot = findAvailableParkingLotSequentially();
-        ParkingTicket ticket = parkCarToParkingLot(car, availableParkingLot);
-        return ticket;
+    @Override
+    protected final boolean parksSequentially() {
+        return parksSequentially;
     }
 
-    private ParkingLot findAvailableParkingLotSequentially(){
-        ParkingLot availableParkingLot = null;
-        for (ParkingLot parkingLot : this.parkingLots){
-            if (parkingLot.getAvailableParkingPosition() > 0) {
-                availableParkingLot = parkingLot;
-                break;
-            }
-        }
-        return availableParkingLot;
+    private int findAvailableParkingLotIndexSequentially(){
+        return availableParkingLots.first();
     }
 }
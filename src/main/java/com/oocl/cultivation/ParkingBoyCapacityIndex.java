@@ -0,0 +1,99 @@
+package com.oocl.cultivation;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+class ParkingBoyCapacityIndex {
+
+    private final TreeSet<Employee> employees = new TreeSet<Employee>(Comparator
+            .comparingLong((Employee employee) -> employee.availableParkingPositions).reversed()
+            .thenComparingLong(employee -> employee.order));
+    private final Map<ParkingBoy, Employee> employeesByParkingBoy = new IdentityHashMap<ParkingBoy, Employee>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextOrder;
+
+    void add(ParkingBoy parkingBoy) {
+        lock.lock();
+        try {
+            if (employeesByParkingBoy.containsKey(parkingBoy)) {
+                return;
+            }
+            Employee employee = new Employee(parkingBoy, nextOrder++);
+            employeesByParkingBoy.put(parkingBoy, employee);
+            employees.add(employee);
+            for (int index = 0; index < parkingBoy.parkingLots.size(); index++) {
+                final int lotIndex = index;
+                employee.listeners[index] = changedParkingLot -> update(employee, lotIndex);
+                parkingBoy.parkingLots.get(index).addListener(employee.listeners[index]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(ParkingBoy parkingBoy) {
+        lock.lock();
+        try {
+            Employee employee = employeesByParkingBoy.remove(parkingBoy);
+            if (employee == null) {
+                return;
+            }
+            employees.remove(employee);
+            for (int index = 0; index < parkingBoy.parkingLots.size(); index++) {
+                parkingBoy.parkingLots.get(index).removeListener(employee.listeners[index]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ParkingBoy findParkingBoyWithMostAvailableParkingPositions() {
+        lock.lock();
+        try {
+            if (employees.isEmpty() || employees.first().availableParkingPositions <= 0) {
+                return null;
+            }
+            return employees.first().parkingBoy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(Employee employee, int lotIndex) {
+        lock.lock();
+        try {
+            if (employeesByParkingBoy.get(employee.parkingBoy) != employee) {
+                return;
+            }
+            int availableParkingPosition = employee.parkingBoy.parkingLots.get(lotIndex).getAvailableParkingPosition();
+            employees.remove(employee);
+            employee.availableParkingPositions += availableParkingPosition - employee.lotAvailableParkingPositions[lotIndex];
+            employee.lotAvailableParkingPositions[lotIndex] = availableParkingPosition;
+            employees.add(employee);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Employee {
+        private final ParkingBoy parkingBoy;
+        private final long order;
+        private final int[] lotAvailableParkingPositions;
+        private final ParkingLotListener[] listeners;
+        private long availableParkingPositions;
+
+        private Employee(ParkingBoy parkingBoy, long order) {
+            this.parkingBoy = parkingBoy;
+            this.order = order;
+            this.lotAvailableParkingPositions = new int[parkingBoy.parkingLots.size()];
+            this.listeners = new ParkingLotListener[parkingBoy.parkingLots.size()];
+            for (int index = 0; index < lotAvailableParkingPositions.length; index++) {
+                lotAvailableParkingPositions[index] = parkingBoy.parkingLots.get(index).getAvailableParkingPosition();
+                availableParkingPositions += lotAvailableParkingPositions[index];
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.oocl.cultivation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ParkingCommandProcessor {
+
+    private static final int MAX_TOKENS = 64;
+    private static final int MANAGER_ID = 0;
+
+    private final ParkingLot[] parkingLots;
+    private final ParkingManager parkingManager;
+    private final int flushBatchSize;
+    private final List<ParkingBoy> parkingBoys = new ArrayList<ParkingBoy>();
+    private final Map<ParkingPerson, Integer> parkingPersonIds = new IdentityHashMap<ParkingPerson, Integer>();
+    private final char[] readBuffer = new char[1 << 16];
+    private final char[] numberBuffer = new char[20];
+    private final int[] tokenStarts = new int[MAX_TOKENS];
+    private final int[] tokenEnds = new int[MAX_TOKENS];
+    private char[] line = new char[256];
+    private int lineLength;
+    private int tokenCount;
+    private Writer staffLog;
+
+    public ParkingCommandProcessor(int flushBatchSize, ParkingLot... parkingLots) {
+        this(new ParkingManager(parkingLots), flushBatchSize, parkingLots);
+    }
+
+    public ParkingCommandProcessor(ParkingManager parkingManager, int flushBatchSize, ParkingLot... parkingLots) {
+        if (flushBatchSize < 1) {
+            throw new IllegalArgumentException("flushBatchSize must be positive");
+        }
+        this.parkingLots = parkingLots.clone();
+        this.parkingManager = parkingManager;
+        this.flushBatchSize = flushBatchSize;
+        this.parkingPersonIds.put(parkingManager, MANAGER_ID);
+    }
+
+    public ParkingManager getParkingManager() {
+        return parkingManager;
+    }
+
+    public void setStaffLog(Writer staffLog) {
+        this.staffLog = staffLog;
+    }
+
+    public long process(Reader input, Writer output) throws IOException {
+        long commands = 0;
+        int unflushedCommands = 0;
+        lineLength = 0;
+        for (int read = input.read(readBuffer); read >= 0; read = input.read(readBuffer)) {
+            for (int index = 0; index < read; index++) {
+                char character = readBuffer[index];
+                if (character != '\n') {
+                    appendToLine(character);
+                } else if (processLine(output)) {
+                    commands++;
+                    if (++unflushedCommands >= flushBatchSize) {
+                        output.flush();
+                        unflushedCommands = 0;
+                    }
+                }
+            }
+        }
+        if (lineLength > 0 && processLine(output)) {
+            commands++;
+        }
+        output.flush();
+        return commands;
+    }
+
+    private void appendToLine(char character) {
+        if (lineLength == line.length) {
+            line = Arrays.copyOf(line, line.length * 2);
+        }
+        line[lineLength++] = character;
+    }
+
+    private boolean processLine(Writer output) throws IOException {
+        try {
+            if (!tokenize()) {
+                return false;
+            }
+            execute(output);
+        } catch (IllegalArgumentException e) {
+            output.write("error ");
+            output.write(e.getMessage());
+        } finally {
+            lineLength = 0;
+        }
+        output.write('\n');
+        return true;
+    }
+
+    private boolean tokenize() {
+        tokenCount = 0;
+        int index = 0;
+        while (index < lineLength) {
+            while (index < lineLength && Character.isWhitespace(line[index])) {
+                index++;
+            }
+            if (index == lineLength) {
+                break;
+            }
+            if (tokenCount == MAX_TOKENS) {
+                throw new IllegalArgumentException("Too many arguments.");
+            }
+            tokenStarts[tokenCount] = index;
+            while (index < lineLength && !Character.isWhitespace(line[index])) {
+                index++;
+            }
+            tokenEnds[tokenCount++] = index;
+        }
+        return tokenCount > 0 && line[tokenStarts[0]] != '#';
+    }
+
+    private void execute(Writer output) throws IOException {
+        if (isToken(0, "park")) {
+            requireArguments(0, 1);
+            writeTicket(output, tokenCount == 1
+                    ? parkingManager.tryPark(new Car())
+                    : parkingManager.tellParkingBoyToTryPark(parkingBoy(1), new Car()));
+        } else if (isToken(0, "dispatch")) {
+            requireArguments(0, 0);
+            writeTicket(output, parkingManager.dispatchPark(new Car()));
+        } else if (isToken(0, "fetch")) {
+            requireArguments(2, 2);
+            writeCar(output, fetch(parseInt(1), parseLong(2)));
+        } else if (isToken(0, "hire")) {
+            requireArguments(1, MAX_TOKENS);
+            int parkingBoyId = hire();
+            logStaffChange();
+            output.write("ok ");
+            writeNumber(output, parkingBoyId);
+        } else if (isToken(0, "manage")) {
+            requireArguments(1, 1);
+            parkingManager.manage(parkingBoy(1));
+            logStaffChange();
+            output.write("ok");
+        } else if (isToken(0, "dismiss")) {
+            requireArguments(1, 1);
+            parkingManager.dismiss(parkingBoy(1));
+            logStaffChange();
+            output.write("ok");
+        } else {
+            throw new IllegalArgumentException("Unknown command.");
+        }
+    }
+
+    private void logStaffChange() throws IOException {
+        if (staffLog != null) {
+            staffLog.write(line, 0, lineLength);
+            staffLog.write('\n');
+            staffLog.flush();
+        }
+    }
+
+    private ParkingResult<Car> fetch(int parkingPersonId, long ticketNumber) {
+        if (parkingPersonId == MANAGER_ID) {
+            ParkingResult<ParkingTicket> ticket = parkingManager.recoverTicket(ticketNumber);
+            return ticket.isSuccessful() ? parkingManager.tryFetch(ticket.getValue()) : ParkingResult.<Car>failure(ticket.getError());
+        }
+        ParkingBoy parkingBoy = parkingBoyById(parkingPersonId);
+        ParkingResult<ParkingTicket> ticket = parkingBoy.recoverTicket(ticketNumber);
+        return ticket.isSuccessful()
+                ? parkingManager.tellParkingBoyToTryFetch(parkingBoy, ticket.getValue())
+                : ParkingResult.<Car>failure(ticket.getError());
+    }
+
+    private int hire() {
+        ParkingLot[] lots = new ParkingLot[tokenCount - 2];
+        for (int token = 2; token < tokenCount; token++) {
+            int parkingLotIndex = parseInt(token);
+            if (parkingLotIndex >= parkingLots.length) {
+                throw new IllegalArgumentException("Unknown parking lot.");
+            }
+            lots[token - 2] = parkingLots[parkingLotIndex];
+        }
+        ParkingBoy parkingBoy;
+        if (isToken(1, "standard")) {
+            parkingBoy = new ParkingBoy(lots);
+        } else if (isToken(1, "smart")) {
+            parkingBoy = new SmartParkingBoy(lots);
+        } else if (isToken(1, "super-smart")) {
+            parkingBoy = new SuperSmartParkingBoy(lots);
+        } else {
+            throw new IllegalArgumentException("Unknown parking boy kind.");
+        }
+        parkingBoys.add(parkingBoy);
+        parkingPersonIds.put(parkingBoy, parkingBoys.size());
+        parkingManager.manage(parkingBoy);
+        return parkingBoys.size();
+    }
+
+    private ParkingBoy parkingBoy(int token) {
+        return parkingBoyById(parseInt(token));
+    }
+
+    private ParkingBoy parkingBoyById(int parkingBoyId) {
+        if (parkingBoyId < 1 || parkingBoyId > parkingBoys.size()) {
+            throw new IllegalArgumentException("Unknown parking boy.");
+        }
+        return parkingBoys.get(parkingBoyId - 1);
+    }
+
+    private void writeTicket(Writer output, ParkingResult<ParkingTicket> result) throws IOException {
+        if (!result.isSuccessful()) {
+            writeError(output, result.getError());
+            return;
+        }
+        ParkingTicket ticket = result.getValue();
+        output.write("ok ");
+        writeNumber(output, parkingPersonIds.get(ticket.getIssuer()));
+        output.write(' ');
+        writeNumber(output, ticket.getNumber());
+    }
+
+    private void writeCar(Writer output, ParkingResult<Car> result) throws IOException {
+        if (result.isSuccessful()) {
+            output.write("ok");
+        } else {
+            writeError(output, result.getError());
+        }
+    }
+
+    private void writeError(Writer output, ParkingError error) throws IOException {
+        output.write("error ");
+        output.write(error.getMessage());
+    }
+
+    private void writeNumber(Writer output, long number) throws IOException {
+        int start = numberBuffer.length;
+        do {
+            numberBuffer[--start] = (char) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        output.write(numberBuffer, start, numberBuffer.length - start);
+    }
+
+    private void requireArguments(int min, int max) {
+        int arguments = tokenCount - 1;
+        if (arguments < min || arguments > max) {
+            throw new IllegalArgumentException("Wrong number of arguments.");
+        }
+    }
+
+    private boolean isToken(int token, String keyword) {
+        int length = tokenEnds[token] - tokenStarts[token];
+        if (length != keyword.length()) {
+            return false;
+        }
+        for (int index = 0; index < length; index++) {
+            if (line[tokenStarts[token] + index] != keyword.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int token) {
+        long number = parseLong(token);
+        if (number > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid number.");
+        }
+        return (int) number;
+    }
+
+    private long parseLong(int token) {
+        long number = 0;
+        for (int index = tokenStarts[token]; index < tokenEnds[token]; index++) {
+            char digit = line[index];
+            if (digit < '0' || digit > '9' || number > (Long.MAX_VALUE - (digit - '0')) / 10) {
+                throw new IllegalArgumentException("Invalid number.");
+            }
+            number = number * 10 + (digit - '0');
+        }
+        return number;
+    }
+}
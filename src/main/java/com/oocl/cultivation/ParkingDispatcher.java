@@ -0,0 +1,22 @@
+package com.oocl.cultivation;
+
+import java.util.concurrent.Executor;
+
+public enum ParkingDispatcher {
+
+    SERIAL_LANE {
+        @Override
+        Executor createParkingBoyLane(Executor executor) {
+            return new SerialExecutor(executor);
+        }
+    },
+
+    VIRTUAL_THREAD {
+        @Override
+        Executor createParkingBoyLane(Executor executor) {
+            return new VirtualThreadLane();
+        }
+    };
+
+    abstract Executor createParkingBoyLane(Executor executor);
+}
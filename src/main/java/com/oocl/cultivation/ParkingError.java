@@ -0,0 +1,21 @@
+package com.oocl.cultivation;
+
+public enum ParkingError {
+
+    TICKET_NOT_PROVIDED("Please provide your parking ticket."),
+    UNRECOGNIZED_PARKING_TICKET("Unrecognized parking ticket."),
+    PARKING_LOT_FULL("The parking lot is full."),
+    PARKING_BOY_NOT_UNDER_MANAGEMENT("That parking boy is not under management."),
+    RESERVATION_EXPIRED("The reservation has expired."),
+    RESERVATION_ALREADY_USED("The reservation has already been used.");
+
+    private final String message;
+
+    ParkingError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,35 @@
+package com.oocl.cultivation;
+
+public class ParkingEvent {
+
+    private ParkingEventType type;
+    private ParkingLot parkingLot;
+    private long ticketNumber;
+    private long timestampMillis;
+
+    ParkingEvent() {
+    }
+
+    void set(ParkingEventType type, ParkingLot parkingLot, long ticketNumber, long timestampMillis) {
+        this.type = type;
+        this.parkingLot = parkingLot;
+        this.ticketNumber = ticketNumber;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public ParkingEventType getType() {
+        return type;
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
+    public long getTicketNumber() {
+        return ticketNumber;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+}
@@ -0,0 +1,6 @@
+package com.oocl.cultivation;
+
+public interface ParkingEventHandler {
+
+    void onEvent(ParkingEvent event, long sequence, boolean endOfBatch);
+}
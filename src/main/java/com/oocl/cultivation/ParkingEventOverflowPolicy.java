@@ -0,0 +1,6 @@
+package com.oocl.cultivation;
+
+public enum ParkingEventOverflowPolicy {
+    WAIT,
+    DROP
+}
@@ -0,0 +1,56 @@
+package com.oocl.cultivation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class ParkingEventProcessor implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final ParkingEventRing ring;
+    private final ParkingEventHandler handler;
+    private final AtomicLong sequence;
+    private volatile boolean running = true;
+
+    ParkingEventProcessor(ParkingEventRing ring, ParkingEventHandler handler, long sequence) {
+        this.ring = ring;
+        this.handler = handler;
+        this.sequence = new AtomicLong(sequence);
+    }
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    public int poll() {
+        long next = sequence.get() + 1;
+        long available = ring.highestPublishedSequence(next);
+        if (available < next) {
+            return 0;
+        }
+        for (long current = next; current <= available; current++) {
+            try {
+                handler.onEvent(ring.get(current), current, current == available);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+        sequence.lazySet(available);
+        return (int) (available - next + 1);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (poll() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        poll();
+    }
+
+    public void halt() {
+        running = false;
+    }
+}
@@ -0,0 +1,135 @@
+package com.oocl.cultivation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class ParkingEventRing implements ParkingLotListener {
+
+    private static final int MAX_SPINS = 100;
+
+    private final int bufferSize;
+    private final int mask;
+    private final ParkingEventOverflowPolicy overflowPolicy;
+    private final ParkingEvent[] events;
+    private final AtomicLongArray publishedSequences;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<ParkingEventProcessor> processors = new CopyOnWriteArrayList<>();
+    private final LongAdder droppedEvents = new LongAdder();
+    private volatile long cachedGatingSequence = -1;
+
+    public ParkingEventRing(int bufferSize) {
+        this(bufferSize, ParkingEventOverflowPolicy.DROP);
+    }
+
+    public ParkingEventRing(int bufferSize, ParkingEventOverflowPolicy overflowPolicy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of two");
+        }
+        this.bufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.events = new ParkingEvent[bufferSize];
+        this.publishedSequences = new AtomicLongArray(bufferSize);
+        for (int index = 0; index < bufferSize; index++) {
+            events[index] = new ParkingEvent();
+            publishedSequences.set(index, -1);
+        }
+    }
+
+    public ParkingEventProcessor addHandler(ParkingEventHandler handler) {
+        ParkingEventProcessor processor = new ParkingEventProcessor(this, handler, cursor.get());
+        processors.add(processor);
+        return processor;
+    }
+
+    public void removeProcessor(ParkingEventProcessor processor) {
+        processors.remove(processor);
+    }
+
+    public void publishFrom(ParkingLot... parkingLots) {
+        for (ParkingLot parkingLot : parkingLots) {
+            parkingLot.addListener(this);
+        }
+    }
+
+    public ParkingEventOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public void onAvailableParkingPositionChanged(ParkingLot parkingLot) {
+    }
+
+    @Override
+    public void onCarParked(ParkingLot parkingLot, ParkingTicket ticket) {
+        publish(ParkingEventType.CAR_PARKED, parkingLot, ticket.getNumber());
+    }
+
+    @Override
+    public void onCarReturned(ParkingLot parkingLot, ParkingTicket ticket) {
+        publish(ParkingEventType.CAR_FETCHED, parkingLot, ticket.getNumber());
+    }
+
+    boolean publish(ParkingEventType type, ParkingLot parkingLot, long ticketNumber) {
+        long next;
+        int spins = 0;
+        while (true) {
+            long current = cursor.get();
+            next = current + 1;
+            long wrapPoint = next - bufferSize;
+            if (wrapPoint > cachedGatingSequence) {
+                long gatingSequence = minimumProcessedSequence(current);
+                cachedGatingSequence = gatingSequence;
+                if (wrapPoint > gatingSequence) {
+                    if (overflowPolicy == ParkingEventOverflowPolicy.DROP) {
+                        droppedEvents.increment();
+                        return false;
+                    }
+                    if (spins < MAX_SPINS) {
+                        spins++;
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(1);
+                    }
+                    continue;
+                }
+            }
+            if (cursor.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        int index = (int) next & mask;
+        events[index].set(type, parkingLot, ticketNumber, System.currentTimeMillis());
+        publishedSequences.lazySet(index, next);
+        return true;
+    }
+
+    long highestPublishedSequence(long from) {
+        long available = cursor.get();
+        for (long sequence = from; sequence <= available; sequence++) {
+            if (publishedSequences.get((int) sequence & mask) != sequence) {
+                return sequence - 1;
+            }
+        }
+        return available;
+    }
+
+    ParkingEvent get(long sequence) {
+        return events[(int) sequence & mask];
+    }
+
+    private long minimumProcessedSequence(long minimum) {
+        for (ParkingEventProcessor processor : processors) {
+            minimum = Math.min(minimum, processor.getSequence());
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,6 @@
+package com.oocl.cultivation;
+
+public enum ParkingEventType {
+    CAR_PARKED,
+    CAR_FETCHED
+}
@@ -0,0 +1,211 @@
+package com.oocl.cultivation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class ParkingLoadGenerator {
+
+    private static final long UTILIZATION_SAMPLE_MILLIS = 100;
+
+    private final ParkingLot[] parkingLots;
+    private final ParkingManager parkingManager;
+    private final List<ParkingBoy> parkingBoys = new ArrayList<>();
+
+    public ParkingLoadGenerator(int lotCount, int lotCapacity, int parkingBoyCount, int smartParkingBoyCount, int superSmartParkingBoyCount) {
+        this.parkingLots = new ParkingLot[lotCount];
+        for (int index = 0; index < lotCount; index++) {
+            parkingLots[index] = new ConcurrentParkingLot(lotCapacity);
+        }
+        this.parkingManager = new ParkingManager(parkingLots);
+        int employeeCount = parkingBoyCount + smartParkingBoyCount + superSmartParkingBoyCount;
+        for (int employee = 0; employee < employeeCount; employee++) {
+            ParkingLot[] lots = lotsOf(employee, employeeCount);
+            ParkingBoy parkingBoy;
+            if (employee < parkingBoyCount) {
+                parkingBoy = new ParkingBoy(lots);
+            } else if (employee < parkingBoyCount + smartParkingBoyCount) {
+                parkingBoy = new SmartParkingBoy(lots);
+            } else {
+                parkingBoy = new SuperSmartParkingBoy(lots);
+            }
+            parkingBoys.add(parkingBoy);
+            parkingManager.manage(parkingBoy);
+        }
+    }
+
+    public ParkingManager getParkingManager() {
+        return parkingManager;
+    }
+
+    public ParkingLoadReport runSynthetic(int threads, double arrivalsPerSecond, long durationMillis, long meanStayMillis, long seed) throws InterruptedException {
+        List<Iterator<ParkingTraceEvent>> workerTraces = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            workerTraces.add(new SyntheticParkingTrace(seed + worker, arrivalsPerSecond / threads, durationMillis, meanStayMillis, worker, threads));
+        }
+        return run(workerTraces);
+    }
+
+    public ParkingLoadReport replay(int threads, List<ParkingTraceEvent> trace) throws InterruptedException {
+        List<List<ParkingTraceEvent>> workerEvents = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            workerEvents.add(new ArrayList<>());
+        }
+        for (ParkingTraceEvent event : trace) {
+            workerEvents.get((int) Math.floorMod(event.getCarId(), (long) threads)).add(event);
+        }
+        List<Iterator<ParkingTraceEvent>> workerTraces = new ArrayList<>();
+        for (List<ParkingTraceEvent> events : workerEvents) {
+            events.sort(Comparator.comparingLong(ParkingTraceEvent::getAtMillis));
+            workerTraces.add(events.iterator());
+        }
+        return run(workerTraces);
+    }
+
+    public static List<ParkingTraceEvent> readTrace(Reader reader) throws IOException {
+        List<ParkingTraceEvent> trace = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields[0].isEmpty() || fields[0].startsWith("#")) {
+                continue;
+            }
+            if (fields.length != 3 || !fields[1].equals("arrive") && !fields[1].equals("depart")) {
+                throw new IOException("Invalid trace line: " + line);
+            }
+            trace.add(new ParkingTraceEvent(Long.parseLong(fields[0]), Long.parseLong(fields[2]), fields[1].equals("arrive")));
+        }
+        return trace;
+    }
+
+    private ParkingLoadReport run(List<Iterator<ParkingTraceEvent>> workerTraces) throws InterruptedException {
+        ParkingMetrics metrics = new ParkingMetrics();
+        double[] utilizationSums = new double[parkingLots.length];
+        double[] peakUtilizations = new double[parkingLots.length];
+        long[] samples = new long[1];
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService workers = Executors.newFixedThreadPool(workerTraces.size());
+        long startNanos = System.nanoTime();
+        sampler.scheduleAtFixedRate(() -> sampleUtilization(utilizationSums, peakUtilizations, samples),
+                0, UTILIZATION_SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        List<Future<?>> results = new ArrayList<>();
+        for (Iterator<ParkingTraceEvent> trace : workerTraces) {
+            results.add(workers.submit(() -> drive(trace, metrics, startNanos)));
+        }
+        try {
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            workers.shutdownNow();
+            sampler.shutdown();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        sampleUtilization(utilizationSums, peakUtilizations, samples);
+        double[] averageUtilizations = new double[parkingLots.length];
+        for (int index = 0; index < parkingLots.length; index++) {
+            averageUtilizations[index] = utilizationSums[index] / samples[0];
+        }
+        return new ParkingLoadReport(elapsedMillis, metrics.snapshot(), averageUtilizations, peakUtilizations);
+    }
+
+    private void drive(Iterator<ParkingTraceEvent> trace, ParkingMetrics metrics, long startNanos) {
+        Map<Long, ParkingTicket> tickets = new HashMap<>();
+        while (trace.hasNext()) {
+            ParkingTraceEvent event = trace.next();
+            long scheduledNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(event.getAtMillis());
+            for (long waitNanos = scheduledNanos - System.nanoTime(); waitNanos > 0; waitNanos = scheduledNanos - System.nanoTime()) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            if (event.isArrival()) {
+                ParkingResult<ParkingTicket> result = parkingBoys.isEmpty()
+                        ? parkingManager.tryPark(new Car())
+                        : parkingManager.dispatchPark(new Car());
+                metrics.record(ParkingOperation.PARK, result, scheduledNanos);
+                if (result.isSuccessful()) {
+                    tickets.put(event.getCarId(), result.getValue());
+                }
+            } else {
+                ParkingTicket ticket = tickets.remove(event.getCarId());
+                if (ticket != null) {
+                    metrics.record(ParkingOperation.FETCH, parkingManager.fetchAnywhere(ticket), scheduledNanos);
+                }
+            }
+        }
+    }
+
+    private synchronized void sampleUtilization(double[] utilizationSums, double[] peakUtilizations, long[] samples) {
+        for (int index = 0; index < parkingLots.length; index++) {
+            double utilization = 1.0 - parkingLots[index].getAvailablePositionRate();
+            utilizationSums[index] += utilization;
+            peakUtilizations[index] = Math.max(peakUtilizations[index], utilization);
+        }
+        samples[0]++;
+    }
+
+    private ParkingLot[] lotsOf(int employee, int employeeCount) {
+        if (employeeCount > parkingLots.length) {
+            return new ParkingLot[]{parkingLots[employee % parkingLots.length]};
+        }
+        List<ParkingLot> lots = new ArrayList<>();
+        for (int index = employee; index < parkingLots.length; index += employeeCount) {
+            lots.add(parkingLots[index]);
+        }
+        return lots.toArray(new ParkingLot[0]);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        options.put("--lots", "100");
+        options.put("--capacity", "100");
+        options.put("--boys", "10");
+        options.put("--smart-boys", "10");
+        options.put("--super-smart-boys", "10");
+        options.put("--threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        options.put("--rate", "10000");
+        options.put("--duration-ms", "10000");
+        options.put("--mean-stay-ms", "1000");
+        options.put("--seed", "1");
+        String tracePath = null;
+        for (int index = 0; index < args.length; index++) {
+            if (args[index].equals("--trace") && index + 1 < args.length) {
+                tracePath = args[++index];
+            } else if (options.containsKey(args[index]) && index + 1 < args.length) {
+                options.put(args[index], args[++index]);
+            } else {
+                System.err.println("usage: load-generator [--lots n] [--capacity n] [--boys n] [--smart-boys n] [--super-smart-boys n]"
+                        + " [--threads n] [--rate arrivals/s] [--duration-ms n] [--mean-stay-ms n] [--seed n] [--trace file]");
+                System.exit(2);
+            }
+        }
+
+        ParkingLoadGenerator generator = new ParkingLoadGenerator(Integer.parseInt(options.get("--lots")),
+                Integer.parseInt(options.get("--capacity")), Integer.parseInt(options.get("--boys")),
+                Integer.parseInt(options.get("--smart-boys")), Integer.parseInt(options.get("--super-smart-boys")));
+        int threads = Integer.parseInt(options.get("--threads"));
+        ParkingLoadReport report = tracePath == null
+                ? generator.runSynthetic(threads, Double.parseDouble(options.get("--rate")), Long.parseLong(options.get("--duration-ms")),
+                        Long.parseLong(options.get("--mean-stay-ms")), Long.parseLong(options.get("--seed")))
+                : generator.replay(threads, readTrace(Files.newBufferedReader(Paths.get(tracePath), StandardCharsets.UTF_8)));
+        System.out.print(report.format());
+    }
+}
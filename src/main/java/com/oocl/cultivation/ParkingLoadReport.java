@@ -0,0 +1,86 @@
+package com.oocl.cultivation;
+
+public final class ParkingLoadReport {
+
+    private final long elapsedMillis;
+    private final ParkingMetricsSnapshot metrics;
+    private final double[] averageUtilizations;
+    private final double[] peakUtilizations;
+
+    ParkingLoadReport(long elapsedMillis, ParkingMetricsSnapshot metrics, double[] averageUtilizations, double[] peakUtilizations) {
+        this.elapsedMillis = elapsedMillis;
+        this.metrics = metrics;
+        this.averageUtilizations = averageUtilizations;
+        this.peakUtilizations = peakUtilizations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getArrivals() {
+        return metrics.getLatency(ParkingOperation.PARK).getCount();
+    }
+
+    public long getParkedCars() {
+        return metrics.getSuccessCount(ParkingOperation.PARK);
+    }
+
+    public long getRejectedCars() {
+        return metrics.getErrorCount(ParkingOperation.PARK, ParkingError.PARKING_LOT_FULL);
+    }
+
+    public long getFetchedCars() {
+        return metrics.getSuccessCount(ParkingOperation.FETCH);
+    }
+
+    public double getThroughputPerSecond() {
+        long operations = getArrivals() + metrics.getLatency(ParkingOperation.FETCH).getCount();
+        return elapsedMillis == 0 ? 0 : operations * 1000.0 / elapsedMillis;
+    }
+
+    public double getRejectionRate() {
+        return getArrivals() == 0 ? 0 : (double) getRejectedCars() / (double) getArrivals();
+    }
+
+    public LatencySnapshot getParkLatency() {
+        return metrics.getLatency(ParkingOperation.PARK);
+    }
+
+    public LatencySnapshot getFetchLatency() {
+        return metrics.getLatency(ParkingOperation.FETCH);
+    }
+
+    public int getParkingLotCount() {
+        return averageUtilizations.length;
+    }
+
+    public double getAverageUtilization(int parkingLot) {
+        return averageUtilizations[parkingLot];
+    }
+
+    public double getPeakUtilization(int parkingLot) {
+        return peakUtilizations[parkingLot];
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("elapsed: %d ms%n", elapsedMillis));
+        report.append(String.format("throughput: %.1f ops/s%n", getThroughputPerSecond()));
+        report.append(String.format("arrivals: %d, parked: %d, fetched: %d%n", getArrivals(), getParkedCars(), getFetchedCars()));
+        report.append(String.format("rejection rate (%s): %.2f%%%n", ParkingError.PARKING_LOT_FULL.getMessage(), getRejectionRate() * 100));
+        appendLatency(report, "park", getParkLatency());
+        appendLatency(report, "fetch", getFetchLatency());
+        for (int parkingLot = 0; parkingLot < averageUtilizations.length; parkingLot++) {
+            report.append(String.format("lot %d utilization: average %.1f%%, peak %.1f%%%n",
+                    parkingLot, averageUtilizations[parkingLot] * 100, peakUtilizations[parkingLot] * 100));
+        }
+        return report.toString();
+    }
+
+    private static void appendLatency(StringBuilder report, String operation, LatencySnapshot latency) {
+        report.append(String.format("%s latency (us): p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n", operation,
+                latency.getValueAtPercentileNanos(50) / 1000.0, latency.getValueAtPercentileNanos(99) / 1000.0,
+                latency.getValueAtPercentileNanos(99.9) / 1000.0, latency.getMaxNanos() / 1000.0));
+    }
+}
@@ -1,11 +1,29 @@
 package com.oocl.cultivation;
 
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ParkingLot {
     private final int capacity;
-    private Map<ParkingTicket, Car> cars = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger issuerCount = new AtomicInteger();
+    private Car[] cars;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int unusedSlot;
+    private int parkedCars;
+    private int[] generations;
+    private volatile int[] issuers;
+    private volatile int[] nonces;
+    private final List<ParkingLotListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<WeakReference<ParkingLotListener>> weakListeners = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Reservation> reservations = new ConcurrentHashMap<>();
 
     public ParkingLot() {
         this(10);
@@ -15,24 +33,387 @@ public class ParkingLot {
         this.capacity = capacity;
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
     public int getAvailableParkingPosition() {
-        return capacity - cars.size();
+        return capacity - parkedCars;
     }
 
     public double getAvailablePositionRate() {
         return (double) getAvailableParkingPosition() / (double) capacity;
     }
 
+    public int getReservedPositions() {
+        return reservations.size();
+    }
+
     public ParkingTicket parkCar(Car car){
-        ParkingTicket ticket = new ParkingTicket();
-        cars.put(ticket, car);
+        return parkCar(car, null, -1);
+    }
+
+    public Reservation reserve(long holdMillis){
+        return reserve(null, -1, holdMillis);
+    }
+
+    Reservation reserve(ParkingPerson issuer, int parkingLotIndex, long holdMillis){
+        ParkingTicket holdTicket = storeCarExclusively(Reservation.HELD_POSITION, issuer, parkingLotIndex);
+        if (holdTicket == null) {
+            return null;
+        }
+        Reservation reservation = new Reservation(holdTicket, holdTicket.getParkedAtMillis() + holdMillis);
+        reservations.put(holdTicket.getSlot(), reservation);
+        notifyPositionReserved(reservation);
+        notifyAvailableParkingPositionChanged();
+        return reservation;
+    }
+
+    public ParkingTicket parkReservedCar(Reservation reservation, Car car){
+        if (reservation == null || reservation.getParkingLot() != this) {
+            return null;
+        }
+        if (System.currentTimeMillis() > reservation.getExpiresAtMillis()) {
+            cancelReservation(reservation);
+            return null;
+        }
+        if (!reservation.redeem()) {
+            return null;
+        }
+        ParkingTicket holdTicket = reservation.getHoldTicket();
+        reservations.remove(holdTicket.getSlot());
+        ParkingTicket ticket;
+        lockSlots();
+        try {
+            int generation = replaceCar(holdTicket.getSlot(), car);
+            ticket = issueTicket(holdTicket.getIssuer(), holdTicket.getParkingLotIndex(), holdTicket.getSlot(), generation);
+        } finally {
+            unlockSlots();
+        }
+        notifyReservationEnded(reservation);
+        try {
+            notifyCarParked(ticket);
+        } catch (RuntimeException e) {
+            rollBackParking(ticket, e);
+            throw e;
+        }
+        return ticket;
+    }
+
+    public boolean cancelReservation(Reservation reservation){
+        if (reservation == null || reservation.getParkingLot() != this || !reservation.release()) {
+            return false;
+        }
+        reservations.remove(reservation.getHoldTicket().getSlot());
+        releaseCarExclusively(reservation.getHoldTicket());
+        notifyReservationEnded(reservation);
+        notifyAvailableParkingPositionChanged();
+        return true;
+    }
+
+    ParkingTicket parkCar(Car car, ParkingPerson issuer, int parkingLotIndex){
+        ParkingTicket ticket = storeCarExclusively(car, issuer, parkingLotIndex);
+        if (ticket != null) {
+            try {
+                notifyCarParked(ticket);
+            } catch (RuntimeException e) {
+                rollBackParking(ticket, e);
+                throw e;
+            }
+            notifyAvailableParkingPositionChanged();
+        }
         return ticket;
     }
 
     public Car returnCar(ParkingTicket ticket){
-        Car returnCar = cars.get(ticket);
-        cars.remove(ticket);
+        Car returnCar = releaseCarExclusively(ticket);
+        if (returnCar != null) {
+            try {
+                notifyCarReturned(ticket);
+            } finally {
+                notifyAvailableParkingPositionChanged();
+            }
+        }
+        return returnCar;
+    }
+
+    public List<Car> returnCars(List<ParkingTicket> tickets){
+        List<Car> returnCars = new ArrayList<>(tickets.size());
+        boolean released = false;
+        try {
+            for (ParkingTicket ticket : tickets) {
+                Car returnCar = releaseCarExclusively(ticket);
+                if (returnCar != null) {
+                    released = true;
+                    notifyCarReturned(ticket);
+                }
+                returnCars.add(returnCar);
+            }
+        } finally {
+            if (released) {
+                notifyAvailableParkingPositionChanged();
+            }
+        }
+        return returnCars;
+    }
+
+    public void addListener(ParkingLotListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ParkingLotListener listener) {
+        listeners.remove(listener);
+    }
+
+    public int getListenerCount() {
+        return listeners.size() + weakListeners.size();
+    }
+
+    void addWeakListener(ParkingLotListener listener) {
+        weakListeners.add(new WeakReference<>(listener));
+    }
+
+    int registerIssuer() {
+        return issuerCount.incrementAndGet();
+    }
+
+    static int issuerIdOf(ParkingPerson issuer, int parkingLotIndex) {
+        return issuer == null ? 0 : issuer.getIssuerId(parkingLotIndex);
+    }
+
+    protected boolean isThreadSafe() {
+        return false;
+    }
+
+    ParkingTicket findTicket(ParkingPerson issuer, int parkingLotIndex, int slot, int nonce) {
+        if (slot >= capacity || reservations.containsKey(slot)) {
+            return null;
+        }
+        int generation;
+        lockSlots();
+        try {
+            generation = getGeneration(slot);
+        } finally {
+            unlockSlots();
+        }
+        int[] nonces = this.nonces;
+        if (generation % 2 == 0 || nonces == null || nonces[slot] != nonce
+                || issuers[slot] != issuerIdOf(issuer, parkingLotIndex)) {
+            return null;
+        }
+        return new ParkingTicket(issuer, this, parkingLotIndex, slot, generation, nonce, 0);
+    }
+
+    int[] copyGenerations() {
+        int[] copy = new int[capacity];
+        lockSlots();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                copy[slot] = getGeneration(slot);
+            }
+        } finally {
+            unlockSlots();
+        }
+        for (Reservation reservation : reservations.values()) {
+            ParkingTicket holdTicket = reservation.getHoldTicket();
+            if (copy[holdTicket.getSlot()] == holdTicket.getGeneration()) {
+                copy[holdTicket.getSlot()]++;
+            }
+        }
+        return copy;
+    }
+
+    int[] copyNonces() {
+        int[] nonces = this.nonces;
+        return nonces == null ? new int[capacity] : nonces.clone();
+    }
+
+    int[] copyIssuers() {
+        int[] issuers = this.issuers;
+        return issuers == null ? new int[capacity] : issuers.clone();
+    }
+
+    void restore(int[] generations, int[] nonces, int[] issuers) {
+        reservations.clear();
+        this.issuers = issuers.clone();
+        this.nonces = nonces.clone();
+        lockSlots();
+        try {
+            restoreSlots(generations);
+        } finally {
+            unlockSlots();
+        }
+        notifyAvailableParkingPositionChanged();
+    }
+
+    protected ParkingTicket storeCar(Car car, ParkingPerson issuer, int parkingLotIndex){
+        if (getAvailableParkingPosition() <= 0) {
+            return null;
+        }
+        if (generations == null) {
+            allocateSlots();
+        }
+        int slot = freeSlotCount == 0 ? unusedSlot++ : freeSlots[--freeSlotCount];
+        int generation = ++generations[slot];
+        cars[slot] = car;
+        parkedCars++;
+        return issueTicket(issuer, parkingLotIndex, slot, generation);
+    }
+
+    protected Car releaseCar(ParkingTicket ticket){
+        if (!isIssuedByThisParkingLot(ticket) || generations[ticket.getSlot()] != ticket.getGeneration()) {
+            return null;
+        }
+        int slot = ticket.getSlot();
+        generations[slot]++;
+        Car returnCar = cars[slot];
+        cars[slot] = null;
+        freeSlots[freeSlotCount++] = slot;
+        parkedCars--;
         return returnCar;
     }
 
+    protected ParkingTicket issueTicket(ParkingPerson issuer, int parkingLotIndex, int slot, int generation) {
+        int nonce = TicketNonces.next();
+        int[] nonces = this.nonces;
+        if (nonces == null) {
+            nonces = allocateTicketState();
+        }
+        issuers[slot] = issuerIdOf(issuer, parkingLotIndex);
+        nonces[slot] = nonce;
+        return new ParkingTicket(issuer, this, parkingLotIndex, slot, generation, nonce, System.currentTimeMillis());
+    }
+
+    protected int replaceCar(int slot, Car car) {
+        cars[slot] = car;
+        generations[slot] += 2;
+        return generations[slot];
+    }
+
+    protected int getGeneration(int slot) {
+        return generations == null ? 0 : generations[slot];
+    }
+
+    protected void restoreSlots(int[] generations) {
+        allocateSlots();
+        System.arraycopy(generations, 0, this.generations, 0, capacity);
+        freeSlotCount = 0;
+        parkedCars = 0;
+        unusedSlot = capacity;
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            if (generations[slot] % 2 == 0) {
+                freeSlots[freeSlotCount++] = slot;
+            } else {
+                cars[slot] = new Car();
+                parkedCars++;
+            }
+        }
+    }
+
+    protected boolean isIssuedByThisParkingLot(ParkingTicket ticket) {
+        return ticket != null && ticket.getParkingLot() == this;
+    }
+
+    private int[] allocateTicketState() {
+        lock.lock();
+        try {
+            if (nonces == null) {
+                issuers = new int[capacity];
+                nonces = new int[capacity];
+            }
+            return nonces;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void allocateSlots() {
+        cars = new Car[capacity];
+        freeSlots = new int[capacity];
+        generations = new int[capacity];
+    }
+
+    private ParkingTicket storeCarExclusively(Car car, ParkingPerson issuer, int parkingLotIndex) {
+        lockSlots();
+        try {
+            return storeCar(car, issuer, parkingLotIndex);
+        } finally {
+            unlockSlots();
+        }
+    }
+
+    private Car releaseCarExclusively(ParkingTicket ticket) {
+        lockSlots();
+        try {
+            return releaseCar(ticket);
+        } finally {
+            unlockSlots();
+        }
+    }
+
+    private void lockSlots() {
+        if (!isThreadSafe()) {
+            lock.lock();
+        }
+    }
+
+    private void unlockSlots() {
+        if (!isThreadSafe()) {
+            lock.unlock();
+        }
+    }
+
+    private void rollBackParking(ParkingTicket ticket, RuntimeException failure) {
+        releaseCarExclusively(ticket);
+        try {
+            notifyCarReturned(ticket);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        } finally {
+            notifyAvailableParkingPositionChanged();
+        }
+    }
+
+    protected void notifyAvailableParkingPositionChanged() {
+        for (ParkingLotListener listener : listeners) {
+            listener.onAvailableParkingPositionChanged(this);
+        }
+        boolean collected = false;
+        for (WeakReference<ParkingLotListener> reference : weakListeners) {
+            ParkingLotListener listener = reference.get();
+            if (listener == null) {
+                collected = true;
+            } else {
+                listener.onAvailableParkingPositionChanged(this);
+            }
+        }
+        if (collected) {
+            weakListeners.removeIf(reference -> reference.get() == null);
+        }
+    }
+
+    private void notifyCarParked(ParkingTicket ticket) {
+        for (ParkingLotListener listener : listeners) {
+            listener.onCarParked(this, ticket);
+        }
+    }
+
+    private void notifyPositionReserved(Reservation reservation) {
+        for (ParkingLotListener listener : listeners) {
+            listener.onPositionReserved(this, reservation);
+        }
+    }
+
+    private void notifyReservationEnded(Reservation reservation) {
+        for (ParkingLotListener listener : listeners) {
+            listener.onReservationEnded(this, reservation);
+        }
+    }
+
+    private void notifyCarReturned(ParkingTicket ticket) {
+        for (ParkingLotListener listener : listeners) {
+            listener.onCarReturned(this, ticket);
+        }
+    }
+
 }
@@ -0,0 +1,18 @@
+package com.oocl.cultivation;
+
+public interface ParkingLotListener {
+
+    void onAvailableParkingPositionChanged(ParkingLot parkingLot);
+
+    default void onCarParked(ParkingLot parkingLot, ParkingTicket ticket) {
+    }
+
+    default void onCarReturned(ParkingLot parkingLot, ParkingTicket ticket) {
+    }
+
+    default void onPositionReserved(ParkingLot parkingLot, Reservation reservation) {
+    }
+
+    default void onReservationEnded(ParkingLot parkingLot, Reservation reservation) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.oocl.cultivation;
+
+enum ParkingLotPriority {
+
+    MOST_EMPTY_POSITIONS {
+        @Override
+        int compare(int availableA, int capacityA, int availableB, int capacityB) {
+            return Integer.compare(availableA, availableB);
+        }
+    },
+
+    LARGEST_AVAILABLE_POSITION_RATE {
+        @Override
+        int compare(int availableA, int capacityA, int availableB, int capacityB) {
+            return Long.compare((long) availableA * capacityB, (long) availableB * capacityA);
+        }
+    };
+
+    abstract int compare(int availableA, int capacityA, int availableB, int capacityB);
+}
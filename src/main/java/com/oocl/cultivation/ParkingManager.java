@@ -1,38 +1,83 @@
 package com.oocl.cultivation;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ParkingManager extends ParkingPerson {
 
-    private final List<ParkingBoy> employees = new ArrayList<ParkingBoy>();
+    private final Map<ParkingBoy, Executor> employees = new ConcurrentHashMap<ParkingBoy, Executor>();
+    private final ParkingBoyCapacityIndex parkingBoyCapacities = new ParkingBoyCapacityIndex();
+    private final ReentrantLock staffLock = new ReentrantLock();
+    private final AvailableParkingLotBitSet availableParkingLots;
+    private final ParkingDispatcher dispatcher;
+    private final Executor executor;
     private String lastErrorMessageFromParkingBoy;
 
     public ParkingManager(ParkingLot... parkingLots) {
-        super(parkingLots);
+        this(ParkingDispatcher.SERIAL_LANE, ForkJoinPool.commonPool(), parkingLots);
     }
 
-    @Override
-    public ParkingTicket park(Car car) {
-        ParkingLot availableParkingLot = findAvailableParkingLot();
-        ParkingTicket ticket = parkCarToParkingLot(car, availableParkingLot);
-        return ticket;
+    public ParkingManager(Executor executor, ParkingLot... parkingLots) {
+        this(ParkingDispatcher.SERIAL_LANE, executor, parkingLots);
+    }
+
+    public ParkingManager(ParkingDispatcher dispatcher, ParkingLot... parkingLots) {
+        this(dispatcher, ForkJoinPool.commonPool(), parkingLots);
+    }
+
+    private ParkingManager(ParkingDispatcher dispatcher, Executor executor, ParkingLot... parkingLots) {
+        super(parkingLots);
+        this.availableParkingLots = new AvailableParkingLotBitSet(this.parkingLots);
+        this.dispatcher = dispatcher;
+        this.executor = executor;
     }
 
     public ParkingTicket tellParkingBoyToPark(ParkingBoy parkingBoy, Car car) {
-        if (!isParkingBoyUnderManagement(parkingBoy)) {
-            setLastErrorMessage("That parking boy is not under management.");
+        ParkingResult<ParkingTicket> result = tellParkingBoyToTryPark(parkingBoy, car);
+        if (result.getError() == ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT) {
+            setLastErrorMessage(result.getErrorMessage());
             return null;
         } else {
-            ParkingTicket ticket = parkingBoy.park(car);
+            ParkingTicket ticket = parkingBoy.recordLastErrorMessage(result);
             setLastErrorMessageFromParkingBoy(parkingBoy.getLastErrorMessage());
             return ticket;
         }
     }
 
+    public ParkingResult<ParkingTicket> tellParkingBoyToTryPark(ParkingBoy parkingBoy, Car car) {
+        ParkingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return tellManagedParkingBoyToPark(parkingBoy, car);
+        }
+        long startNanos = System.nanoTime();
+        ParkingResult<ParkingTicket> result = tellManagedParkingBoyToPark(parkingBoy, car);
+        metrics.record(ParkingOperation.TELL_PARKING_BOY_TO_PARK, result, startNanos);
+        return result;
+    }
+
+    public ParkingResult<ParkingTicket> dispatchPark(Car car) {
+        ParkingBoy parkingBoy = parkingBoyCapacities.findParkingBoyWithMostAvailableParkingPositions();
+        while (parkingBoy != null) {
+            ParkingResult<ParkingTicket> result = parkingBoy.tryPark(car);
+            if (result.isSuccessful()) {
+                return result;
+            }
+            ParkingBoy nextParkingBoy = parkingBoyCapacities.findParkingBoyWithMostAvailableParkingPositions();
+            parkingBoy = nextParkingBoy == parkingBoy ? null : nextParkingBoy;
+        }
+        return ParkingResult.failure(ParkingError.PARKING_LOT_FULL);
+    }
+
     public Car tellParkingBoyToFetch(ParkingBoy parkingBoy, ParkingTicket ticket) {
         if (!isParkingBoyUnderManagement(parkingBoy)) {
-            setLastErrorMessage("That parking boy is not under management.");
+            setLastErrorMessage(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT.getMessage());
             return null;
         } else {
             Car car = parkingBoy.fetch(ticket);
@@ -41,6 +86,47 @@ public class ParkingManager extends ParkingPerson {
         }
     }
 
+    public ParkingResult<Car> tellParkingBoyToTryFetch(ParkingBoy parkingBoy, ParkingTicket ticket) {
+        if (!isParkingBoyUnderManagement(parkingBoy)) {
+            return ParkingResult.failure(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT);
+        }
+        return parkingBoy.tryFetch(ticket);
+    }
+
+    public ParkingResult<Car> fetchAnywhere(ParkingTicket ticket) {
+        if (!isTicketProvided(ticket)) {
+            return ParkingResult.failure(ParkingError.TICKET_NOT_PROVIDED);
+        }
+        ParkingPerson issuer = ticket.getIssuer();
+        if (issuer == null || issuer != this && !employees.containsKey(issuer)) {
+            return ParkingResult.failure(ParkingError.UNRECOGNIZED_PARKING_TICKET);
+        }
+        return issuer.tryFetch(ticket);
+    }
+
+    public List<ParkingResult<Car>> tellParkingBoyToFetchAll(ParkingBoy parkingBoy, Collection<ParkingTicket> tickets) {
+        if (!isParkingBoyUnderManagement(parkingBoy)) {
+            return Collections.nCopies(tickets.size(), ParkingResult.<Car>failure(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT));
+        }
+        return parkingBoy.fetchAll(tickets);
+    }
+
+    public CompletableFuture<ParkingResult<ParkingTicket>> tellParkingBoyToParkAsync(ParkingBoy parkingBoy, Car car) {
+        Executor parkingBoyLane = employees.get(parkingBoy);
+        if (parkingBoyLane == null) {
+            return CompletableFuture.completedFuture(ParkingResult.<ParkingTicket>failure(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT));
+        }
+        return CompletableFuture.supplyAsync(() -> parkingBoy.tryPark(car), parkingBoyLane);
+    }
+
+    public CompletableFuture<ParkingResult<Car>> tellParkingBoyToFetchAsync(ParkingBoy parkingBoy, ParkingTicket ticket) {
+        Executor parkingBoyLane = employees.get(parkingBoy);
+        if (parkingBoyLane == null) {
+            return CompletableFuture.completedFuture(ParkingResult.<Car>failure(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT));
+        }
+        return CompletableFuture.supplyAsync(() -> parkingBoy.tryFetch(ticket), parkingBoyLane);
+    }
+
     public String getLastErrorMessageFromParkingBoy() {
         return lastErrorMessageFromParkingBoy;
     }
@@ -50,21 +136,45 @@ public class ParkingManager extends ParkingPerson {
     }
 
     public void manage(ParkingBoy parkingBoy){
-        employees.add(parkingBoy);
+        staffLock.lock();
+        try {
+            if (!employees.containsKey(parkingBoy)) {
+                employees.put(parkingBoy, dispatcher.createParkingBoyLane(executor));
+                parkingBoyCapacities.add(parkingBoy);
+            }
+        } finally {
+            staffLock.unlock();
+        }
     }
 
-    private ParkingLot findAvailableParkingLot(){
-        ParkingLot availableParkingLot = null;
-        for (ParkingLot parkingLot : this.parkingLots){
-            if (parkingLot.getAvailableParkingPosition() > 0) {
-                availableParkingLot = parkingLot;
-                break;
-            }
+    public void dismiss(ParkingBoy parkingBoy){
+        staffLock.lock();
+        try {
+            parkingBoyCapacities.remove(parkingBoy);
+            employees.remove(parkingBoy);
+        } finally {
+            staffLock.unlock();
+        }
+    }
+
+    @Override
+    protected int findAvailableParkingLotIndex(){
+        return availableParkingLots.first();
+    }
+
+    @Override
+    protected boolean parksSequentially() {
+        return true;
+    }
+
+    private ParkingResult<ParkingTicket> tellManagedParkingBoyToPark(ParkingBoy parkingBoy, Car car) {
+        if (!isParkingBoyUnderManagement(parkingBoy)) {
+            return ParkingResult.failure(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT);
         }
-        return availableParkingLot;
+        return parkingBoy.tryPark(car);
     }
 
     private boolean isParkingBoyUnderManagement(ParkingBoy parkingBoy){
-        return this.employees.contains(parkingBoy);
+        return this.employees.containsKey(parkingBoy);
     }
 }
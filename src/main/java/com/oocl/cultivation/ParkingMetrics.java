@@ -0,0 +1,67 @@
+package com.oocl.cultivation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ParkingMetrics {
+
+    private static final ParkingOperation[] OPERATIONS = ParkingOperation.values();
+    private static final ParkingError[] ERRORS = ParkingError.values();
+
+    private final LongAdder[] successes = new LongAdder[OPERATIONS.length];
+    private final LongAdder[][] errors = new LongAdder[OPERATIONS.length][ERRORS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final CopyOnWriteArrayList<ParkingLot> parkingLots = new CopyOnWriteArrayList<>();
+
+    public ParkingMetrics() {
+        for (ParkingOperation operation : OPERATIONS) {
+            successes[operation.ordinal()] = new LongAdder();
+            latencies[operation.ordinal()] = new LatencyHistogram();
+            for (ParkingError error : ERRORS) {
+                errors[operation.ordinal()][error.ordinal()] = new LongAdder();
+            }
+        }
+    }
+
+    public void registerParkingLots(List<ParkingLot> parkingLots) {
+        for (ParkingLot parkingLot : parkingLots) {
+            this.parkingLots.addIfAbsent(parkingLot);
+        }
+    }
+
+    public ParkingMetricsSnapshot snapshot() {
+        long[] successCounts = new long[OPERATIONS.length];
+        long[][] errorCounts = new long[OPERATIONS.length][ERRORS.length];
+        LatencySnapshot[] latencySnapshots = new LatencySnapshot[OPERATIONS.length];
+        for (ParkingOperation operation : OPERATIONS) {
+            int index = operation.ordinal();
+            successCounts[index] = successes[index].sum();
+            for (ParkingError error : ERRORS) {
+                errorCounts[index][error.ordinal()] = errors[index][error.ordinal()].sum();
+            }
+            latencySnapshots[index] = latencies[index].snapshot();
+        }
+        int[] capacities = new int[parkingLots.size()];
+        int[] occupiedPositions = new int[capacities.length];
+        for (int index = 0; index < capacities.length; index++) {
+            ParkingLot parkingLot = parkingLots.get(index);
+            capacities[index] = parkingLot.getCapacity();
+            occupiedPositions[index] = capacities[index] - parkingLot.getAvailableParkingPosition();
+        }
+        return new ParkingMetricsSnapshot(successCounts, errorCounts, latencySnapshots, capacities, occupiedPositions);
+    }
+
+    void record(ParkingOperation operation, ParkingResult<?> result, long startNanos) {
+        latencies[operation.ordinal()].record(System.nanoTime() - startNanos);
+        recordResult(operation, result);
+    }
+
+    void recordResult(ParkingOperation operation, ParkingResult<?> result) {
+        if (result.isSuccessful()) {
+            successes[operation.ordinal()].increment();
+        } else {
+            errors[operation.ordinal()][result.getError().ordinal()].increment();
+        }
+    }
+}
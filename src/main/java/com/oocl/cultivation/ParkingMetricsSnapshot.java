@@ -0,0 +1,46 @@
+package com.oocl.cultivation;
+
+public final class ParkingMetricsSnapshot {
+
+    private final long[] successCounts;
+    private final long[][] errorCounts;
+    private final LatencySnapshot[] latencies;
+    private final int[] capacities;
+    private final int[] occupiedPositions;
+
+    ParkingMetricsSnapshot(long[] successCounts, long[][] errorCounts, LatencySnapshot[] latencies, int[] capacities, int[] occupiedPositions) {
+        this.successCounts = successCounts;
+        this.errorCounts = errorCounts;
+        this.latencies = latencies;
+        this.capacities = capacities;
+        this.occupiedPositions = occupiedPositions;
+    }
+
+    public long getSuccessCount(ParkingOperation operation) {
+        return successCounts[operation.ordinal()];
+    }
+
+    public long getErrorCount(ParkingOperation operation, ParkingError error) {
+        return errorCounts[operation.ordinal()][error.ordinal()];
+    }
+
+    public LatencySnapshot getLatency(ParkingOperation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public int getParkingLotCount() {
+        return capacities.length;
+    }
+
+    public int getCapacity(int parkingLot) {
+        return capacities[parkingLot];
+    }
+
+    public int getOccupiedPositions(int parkingLot) {
+        return occupiedPositions[parkingLot];
+    }
+
+    public double getOccupancyRate(int parkingLot) {
+        return (double) occupiedPositions[parkingLot] / (double) capacities[parkingLot];
+    }
+}
@@ -0,0 +1,7 @@
+package com.oocl.cultivation;
+
+public enum ParkingOperation {
+    PARK,
+    FETCH,
+    TELL_PARKING_BOY_TO_PARK
+}
@@ -5,23 +5,148 @@ import java.util.*;
 abstract class ParkingPerson {
 
     protected final List<ParkingLot> parkingLots = new ArrayList<ParkingLot>();
-    protected final Map<ParkingTicket, ParkingLot> parkingLotStorage = new HashMap<ParkingTicket, ParkingLot>();
     protected String lastErrorMessage;
+    protected ParkingMetrics metrics;
+    private final int[] issuerIds;
 
     public ParkingPerson(ParkingLot... parkingLots) {
         this.parkingLots.addAll(Arrays.asList(parkingLots));
+        this.issuerIds = new int[parkingLots.length];
+        for (int index = 0; index < parkingLots.length; index++) {
+            issuerIds[index] = parkingLots[index].registerIssuer();
+        }
+    }
+
+    public ParkingTicket park(Car car) {
+        return recordLastErrorMessage(tryPark(car));
+    }
+
+    public ParkingResult<ParkingTicket> tryPark(Car car) {
+        ParkingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return parkCarToParkingLot(car);
+        }
+        long startNanos = System.nanoTime();
+        ParkingResult<ParkingTicket> result = parkCarToParkingLot(car);
+        metrics.record(ParkingOperation.PARK, result, startNanos);
+        return result;
+    }
+
+    public List<ParkingResult<ParkingTicket>> parkAll(Car... cars) {
+        return parkAll(Arrays.asList(cars));
+    }
+
+    public List<ParkingResult<ParkingTicket>> parkAll(List<Car> cars) {
+        List<ParkingResult<ParkingTicket>> results = new ArrayList<ParkingResult<ParkingTicket>>(cars.size());
+        int parkingLotIndex = findAvailableParkingLotIndex();
+        for (Car car : cars) {
+            ParkingTicket ticket = null;
+            while (parkingLotIndex >= 0 && (ticket = parkCarToParkingLot(car, parkingLotIndex)) == null) {
+                parkingLotIndex = findAnotherAvailableParkingLotIndex(parkingLotIndex);
+            }
+            if (ticket == null) {
+                results.add(ParkingResult.<ParkingTicket>failure(ParkingError.PARKING_LOT_FULL));
+            } else {
+                results.add(ParkingResult.success(ticket));
+                if (!parksSequentially()) {
+                    parkingLotIndex = findAvailableParkingLotIndex();
+                }
+            }
+        }
+        recordResults(ParkingOperation.PARK, results);
+        return results;
+    }
+
+    public ParkingResult<Reservation> tryReserve(long holdMillis) {
+        for (int parkingLotIndex = findAvailableParkingLotIndex(); parkingLotIndex >= 0;
+             parkingLotIndex = findAnotherAvailableParkingLotIndex(parkingLotIndex)) {
+            Reservation reservation = parkingLots.get(parkingLotIndex).reserve(this, parkingLotIndex, holdMillis);
+            if (reservation != null) {
+                return ParkingResult.success(reservation);
+            }
+        }
+        return ParkingResult.failure(ParkingError.PARKING_LOT_FULL);
     }
 
-    public abstract ParkingTicket park(Car car);
+    public ParkingResult<ParkingTicket> tryParkReserved(Reservation reservation, Car car) {
+        if (reservation == null) {
+            return ParkingResult.failure(ParkingError.TICKET_NOT_PROVIDED);
+        }
+        if (reservation.getHoldTicket().getIssuer() != this) {
+            return ParkingResult.failure(ParkingError.UNRECOGNIZED_PARKING_TICKET);
+        }
+        ParkingTicket ticket = reservation.getParkingLot().parkReservedCar(reservation, car);
+        if (ticket == null) {
+            return ParkingResult.failure(reservation.isRedeemed() ? ParkingError.RESERVATION_ALREADY_USED : ParkingError.RESERVATION_EXPIRED);
+        }
+        return ParkingResult.success(ticket);
+    }
+
+    public ParkingResult<ParkingTicket> recoverTicket(long ticketNumber) {
+        int parkingLotIndex = ParkingTicket.parkingLotIndexOf(ticketNumber);
+        ParkingTicket ticket = parkingLotIndex < parkingLots.size()
+                ? parkingLots.get(parkingLotIndex).findTicket(this, parkingLotIndex, ParkingTicket.slotOf(ticketNumber), ParkingTicket.nonceOf(ticketNumber))
+                : null;
+        if (ticket == null) {
+            return ParkingResult.failure(ParkingError.UNRECOGNIZED_PARKING_TICKET);
+        }
+        return ParkingResult.success(ticket);
+    }
 
     public Car fetch(ParkingTicket ticket) {
-        Car car = null;
-        if (isTicketProvided(ticket)){
-            car = getCarFromParkingLot(ticket);
-        } else {
-            setLastErrorMessage("Please provide your parking ticket.");
+        return recordLastErrorMessage(tryFetch(ticket));
+    }
+
+    public ParkingResult<Car> tryFetch(ParkingTicket ticket) {
+        ParkingMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return fetchCar(ticket);
+        }
+        long startNanos = System.nanoTime();
+        ParkingResult<Car> result = fetchCar(ticket);
+        metrics.record(ParkingOperation.FETCH, result, startNanos);
+        return result;
+    }
+
+    public List<ParkingResult<Car>> fetchAll(Collection<ParkingTicket> tickets) {
+        List<ParkingResult<Car>> results = new ArrayList<ParkingResult<Car>>(tickets.size());
+        Map<ParkingLot, List<Integer>> positionsByParkingLot = new IdentityHashMap<ParkingLot, List<Integer>>();
+        Map<ParkingLot, List<ParkingTicket>> ticketsByParkingLot = new IdentityHashMap<ParkingLot, List<ParkingTicket>>();
+        for (ParkingTicket ticket : tickets) {
+            if (!isTicketProvided(ticket)) {
+                results.add(ParkingResult.<Car>failure(ParkingError.TICKET_NOT_PROVIDED));
+            } else if (!isTicketIssuedByThisPerson(ticket)) {
+                results.add(ParkingResult.<Car>failure(ParkingError.UNRECOGNIZED_PARKING_TICKET));
+            } else {
+                ParkingLot parkingLot = ticket.getParkingLot();
+                if (!ticketsByParkingLot.containsKey(parkingLot)) {
+                    positionsByParkingLot.put(parkingLot, new ArrayList<Integer>());
+                    ticketsByParkingLot.put(parkingLot, new ArrayList<ParkingTicket>());
+                }
+                positionsByParkingLot.get(parkingLot).add(results.size());
+                ticketsByParkingLot.get(parkingLot).add(ticket);
+                results.add(null);
+            }
         }
-        return car;
+        for (Map.Entry<ParkingLot, List<ParkingTicket>> entry : ticketsByParkingLot.entrySet()) {
+            List<Car> cars = entry.getKey().returnCars(entry.getValue());
+            List<Integer> positions = positionsByParkingLot.get(entry.getKey());
+            for (int index = 0; index < cars.size(); index++) {
+                Car car = cars.get(index);
+                results.set(positions.get(index), car == null
+                        ? ParkingResult.<Car>failure(ParkingError.UNRECOGNIZED_PARKING_TICKET)
+                        : ParkingResult.success(car));
+            }
+        }
+        recordResults(ParkingOperation.FETCH, results);
+        return results;
+    }
+
+    public void setMetrics(ParkingMetrics metrics) {
+        if (metrics != null) {
+            metrics.registerParkingLots(parkingLots);
+        }
+        this.metrics = metrics;
     }
 
     public String getLastErrorMessage() {
@@ -32,28 +157,46 @@ abstract class ParkingPerson {
         this.lastErrorMessage = errorMsg;
     }
 
-    protected ParkingTicket parkCarToParkingLot(Car car, ParkingLot parkingLot){
-        if (parkingLot == null || parkingLot.getAvailableParkingPosition() == 0){
-            setLastErrorMessage("The parking lot is full.");
-            return null;
-        } else {
-            clearLastErrorMessage();
-            ParkingTicket ticket = parkingLot.parkCar(car);
-            this.parkingLotStorage.put(ticket, parkingLot);
-            return ticket;
+    protected abstract int findAvailableParkingLotIndex();
+
+    protected boolean parksSequentially() {
+        return false;
+    }
+
+    private int findAnotherAvailableParkingLotIndex(int failedParkingLotIndex) {
+        int parkingLotIndex = findAvailableParkingLotIndex();
+        return parkingLotIndex == failedParkingLotIndex ? -1 : parkingLotIndex;
+    }
+
+    protected ParkingResult<ParkingTicket> parkCarToParkingLot(Car car){
+        for (int parkingLotIndex = findAvailableParkingLotIndex(); parkingLotIndex >= 0;
+             parkingLotIndex = findAnotherAvailableParkingLotIndex(parkingLotIndex)) {
+            ParkingTicket ticket = parkCarToParkingLot(car, parkingLotIndex);
+            if (ticket != null) {
+                return ParkingResult.success(ticket);
+            }
         }
+        return ParkingResult.failure(ParkingError.PARKING_LOT_FULL);
     }
 
-    protected Car getCarFromParkingLot(ParkingTicket ticket){
-        ParkingLot parkingLot = findParkingLotByTicket(ticket);
-        if (parkingLot == null) {
-            setLastErrorMessage("Unrecognized parking ticket.");
-            return null;
+    protected ParkingTicket parkCarToParkingLot(Car car, int parkingLotIndex){
+        return parkingLots.get(parkingLotIndex).parkCar(car, this, parkingLotIndex);
+    }
+
+    protected ParkingResult<Car> fetchCar(ParkingTicket ticket){
+        if (isTicketProvided(ticket)){
+            return getCarFromParkingLot(ticket);
         } else {
-            clearLastErrorMessage();
-            this.parkingLotStorage.remove(ticket);
+            return ParkingResult.failure(ParkingError.TICKET_NOT_PROVIDED);
+        }
+    }
+
+    protected ParkingResult<Car> getCarFromParkingLot(ParkingTicket ticket){
+        Car car = isTicketIssuedByThisPerson(ticket) ? ticket.getParkingLot().returnCar(ticket) : null;
+        if (car == null) {
+            return ParkingResult.failure(ParkingError.UNRECOGNIZED_PARKING_TICKET);
         }
-        return parkingLot.returnCar(ticket);
+        return ParkingResult.success(car);
     }
 
     protected boolean isTicketProvided(ParkingTicket ticket){
@@ -64,7 +207,29 @@ abstract class ParkingPerson {
         this.lastErrorMessage = null;
     }
 
-    protected ParkingLot findParkingLotByTicket(ParkingTicket ticket){
-        return parkingLotStorage.get(ticket);
+    protected boolean isTicketIssuedByThisPerson(ParkingTicket ticket){
+        return ticket.getIssuer() == this;
+    }
+
+    private <T> void recordResults(ParkingOperation operation, List<ParkingResult<T>> results) {
+        ParkingMetrics metrics = this.metrics;
+        if (metrics != null) {
+            for (ParkingResult<T> result : results) {
+                metrics.recordResult(operation, result);
+            }
+        }
+    }
+
+    int getIssuerId(int parkingLotIndex) {
+        return issuerIds[parkingLotIndex];
+    }
+
+    <T> T recordLastErrorMessage(ParkingResult<T> result) {
+        if (result.isSuccessful()) {
+            clearLastErrorMessage();
+        } else {
+            setLastErrorMessage(result.getErrorMessage());
+        }
+        return result.getValue();
     }
 }
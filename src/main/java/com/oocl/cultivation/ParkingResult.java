@@ -0,0 +1,45 @@
+package com.oocl.cultivation;
+
+public final class ParkingResult<T> {
+
+    private static final ParkingResult<?>[] FAILURES = new ParkingResult<?>[ParkingError.values().length];
+
+    static {
+        for (ParkingError error : ParkingError.values()) {
+            FAILURES[error.ordinal()] = new ParkingResult<Object>(null, error);
+        }
+    }
+
+    private final T value;
+    private final ParkingError error;
+
+    private ParkingResult(T value, ParkingError error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> ParkingResult<T> success(T value) {
+        return new ParkingResult<T>(value, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ParkingResult<T> failure(ParkingError error) {
+        return (ParkingResult<T>) FAILURES[error.ordinal()];
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public ParkingError getError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return error == null ? null : error.getMessage();
+    }
+}
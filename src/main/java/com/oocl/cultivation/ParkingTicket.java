@@ -1,4 +1,76 @@
 package com.oocl.cultivation;
 
 public class ParkingTicket {
+
+    static final int NONCE_MASK = 0xFFFFFF;
+    private static final int SLOT_MASK = 0xFFFFFF;
+    private static final int PARKING_LOT_INDEX_MASK = 0xFFFF;
+
+    private final ParkingPerson issuer;
+    private final ParkingLot parkingLot;
+    private final int parkingLotIndex;
+    private final int slot;
+    private final int generation;
+    private final int nonce;
+    private final long parkedAtMillis;
+
+    public ParkingTicket() {
+        this(null, null, -1, -1, 0, 0, 0);
+    }
+
+    ParkingTicket(ParkingPerson issuer, ParkingLot parkingLot, int parkingLotIndex, int slot, int generation, int nonce, long parkedAtMillis) {
+        this.issuer = issuer;
+        this.parkingLot = parkingLot;
+        this.parkingLotIndex = parkingLotIndex;
+        this.slot = slot;
+        this.generation = generation;
+        this.nonce = nonce;
+        this.parkedAtMillis = parkedAtMillis;
+    }
+
+    public long getNumber() {
+        return ((long) (parkingLotIndex & PARKING_LOT_INDEX_MASK) << 48)
+                | ((long) (slot & SLOT_MASK) << 24)
+                | (nonce & NONCE_MASK);
+    }
+
+    public long getParkedAtMillis() {
+        return parkedAtMillis;
+    }
+
+    ParkingPerson getIssuer() {
+        return issuer;
+    }
+
+    ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
+    int getParkingLotIndex() {
+        return parkingLotIndex;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    int getNonce() {
+        return nonce;
+    }
+
+    static int parkingLotIndexOf(long number) {
+        return (int) (number >>> 48) & PARKING_LOT_INDEX_MASK;
+    }
+
+    static int slotOf(long number) {
+        return (int) (number >>> 24) & SLOT_MASK;
+    }
+
+    static int nonceOf(long number) {
+        return (int) number & NONCE_MASK;
+    }
 }
@@ -0,0 +1,26 @@
+package com.oocl.cultivation;
+
+public final class ParkingTraceEvent {
+
+    private final long atMillis;
+    private final long carId;
+    private final boolean arrival;
+
+    public ParkingTraceEvent(long atMillis, long carId, boolean arrival) {
+        this.atMillis = atMillis;
+        this.carId = carId;
+        this.arrival = arrival;
+    }
+
+    public long getAtMillis() {
+        return atMillis;
+    }
+
+    public long getCarId() {
+        return carId;
+    }
+
+    public boolean isArrival() {
+        return arrival;
+    }
+}
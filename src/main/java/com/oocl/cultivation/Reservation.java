@@ -0,0 +1,48 @@
+package com.oocl.cultivation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Reservation {
+
+    static final Car HELD_POSITION = new Car();
+    private static final int HELD = 0;
+    private static final int REDEEMED = 1;
+    private static final int RELEASED = 2;
+
+    private final ParkingTicket holdTicket;
+    private final long expiresAtMillis;
+    private final AtomicInteger state = new AtomicInteger(HELD);
+
+    Reservation(ParkingTicket holdTicket, long expiresAtMillis) {
+        this.holdTicket = holdTicket;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public ParkingLot getParkingLot() {
+        return holdTicket.getParkingLot();
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isHeld() {
+        return state.get() == HELD;
+    }
+
+    public boolean isRedeemed() {
+        return state.get() == REDEEMED;
+    }
+
+    ParkingTicket getHoldTicket() {
+        return holdTicket;
+    }
+
+    boolean redeem() {
+        return state.compareAndSet(HELD, REDEEMED);
+    }
+
+    boolean release() {
+        return state.compareAndSet(HELD, RELEASED);
+    }
+}
@@ -0,0 +1,89 @@
+package com.oocl.cultivation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ReservationReaper implements ParkingLotListener {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TicketExpiryWheel wheel;
+    private final Map<ParkingTicket, Reservation> reservations = new IdentityHashMap<>();
+
+    public ReservationReaper(long tickMillis, long startMillis) {
+        this.wheel = new TicketExpiryWheel(tickMillis, 0, startMillis);
+    }
+
+    public void watch(ParkingLot... parkingLots) {
+        for (ParkingLot parkingLot : parkingLots) {
+            parkingLot.addListener(this);
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return reservations.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onAvailableParkingPositionChanged(ParkingLot parkingLot) {
+    }
+
+    @Override
+    public void onPositionReserved(ParkingLot parkingLot, Reservation reservation) {
+        lock.lock();
+        try {
+            reservations.put(reservation.getHoldTicket(), reservation);
+            wheel.schedule(reservation.getHoldTicket(), reservation.getExpiresAtMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onReservationEnded(ParkingLot parkingLot, Reservation reservation) {
+        lock.lock();
+        try {
+            if (reservations.remove(reservation.getHoldTicket()) != null) {
+                wheel.cancel(reservation.getHoldTicket());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int reclaim(long nowMillis) {
+        List<Reservation> expiredReservations = new ArrayList<>();
+        lock.lock();
+        try {
+            for (ParkingTicket holdTicket : wheel.advanceTo(nowMillis)) {
+                Reservation reservation = reservations.remove(holdTicket);
+                if (reservation != null) {
+                    expiredReservations.add(reservation);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        int reclaimed = 0;
+        for (Reservation reservation : expiredReservations) {
+            if (reservation.getParkingLot().cancelReservation(reservation)) {
+                reclaimed++;
+            }
+        }
+        return reclaimed;
+    }
+
+    public ScheduledFuture<?> scheduleReclaim(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(() -> reclaim(System.currentTimeMillis()), period, period, unit);
+    }
+}
@@ -0,0 +1,167 @@
+package com.oocl.cultivation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ShardedParkingManager {
+
+    private static final int VIRTUAL_NODES_PER_SHARD = 64;
+
+    private final ParkingManager[] shards;
+    private final ReentrantLock[] locks;
+    private final int[] ringPoints;
+    private final int[][] ringShards;
+    private final Map<ParkingLot, Integer> shardsByParkingLot = new IdentityHashMap<>();
+    private final Map<ParkingPerson, Integer> shardsByIssuer = new ConcurrentHashMap<>();
+
+    public ShardedParkingManager(int shardCount, ParkingLot... parkingLots) {
+        this(shardCount, ParkingDispatcher.SERIAL_LANE, parkingLots);
+    }
+
+    public ShardedParkingManager(int shardCount, ParkingDispatcher dispatcher, ParkingLot... parkingLots) {
+        if (shardCount < 1 || shardCount > parkingLots.length) {
+            throw new IllegalArgumentException("shardCount must be between 1 and the number of parking lots");
+        }
+        List<List<ParkingLot>> partitions = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int index = 0; index < parkingLots.length; index++) {
+            partitions.get(index % shardCount).add(parkingLots[index]);
+            shardsByParkingLot.put(parkingLots[index], index % shardCount);
+        }
+        this.shards = new ParkingManager[shardCount];
+        this.locks = new ReentrantLock[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards[shard] = new ParkingManager(dispatcher, partitions.get(shard).toArray(new ParkingLot[0]));
+            locks[shard] = new ReentrantLock();
+            shardsByIssuer.put(shards[shard], shard);
+        }
+        this.ringPoints = new int[shardCount * VIRTUAL_NODES_PER_SHARD];
+        this.ringShards = new int[ringPoints.length][];
+        buildRing();
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int getAvailableParkingPosition() {
+        int available = 0;
+        for (ParkingLot parkingLot : shardsByParkingLot.keySet()) {
+            available += parkingLot.getAvailableParkingPosition();
+        }
+        return available;
+    }
+
+    public int shardOf(Object routingKey) {
+        return ringShards[ringIndexOf(routingKey)][0];
+    }
+
+    public void manage(ParkingBoy parkingBoy) {
+        Integer shard = null;
+        for (ParkingLot parkingLot : parkingBoy.parkingLots) {
+            Integer parkingLotShard = shardsByParkingLot.get(parkingLot);
+            if (parkingLotShard == null || shard != null && !shard.equals(parkingLotShard)) {
+                throw new IllegalArgumentException("parking boy must work in parking lots of a single shard");
+            }
+            shard = parkingLotShard;
+        }
+        if (shard == null) {
+            throw new IllegalArgumentException("parking boy must work in parking lots of a single shard");
+        }
+        locks[shard].lock();
+        try {
+            shards[shard].manage(parkingBoy);
+            shardsByIssuer.put(parkingBoy, shard);
+        } finally {
+            locks[shard].unlock();
+        }
+    }
+
+    public ParkingResult<ParkingTicket> park(Object routingKey, Car car) {
+        for (int shard : ringShards[ringIndexOf(routingKey)]) {
+            ParkingResult<ParkingTicket> result = parkInShard(shard, car);
+            if (result.isSuccessful()) {
+                return result;
+            }
+        }
+        return ParkingResult.failure(ParkingError.PARKING_LOT_FULL);
+    }
+
+    public ParkingResult<Car> fetch(ParkingTicket ticket) {
+        Integer shard = ticket == null || ticket.getIssuer() == null ? null : shardsByIssuer.get(ticket.getIssuer());
+        if (shard == null) {
+            return ticket == null
+                    ? ParkingResult.failure(ParkingError.TICKET_NOT_PROVIDED)
+                    : ParkingResult.failure(ParkingError.UNRECOGNIZED_PARKING_TICKET);
+        }
+        locks[shard].lock();
+        try {
+            return shards[shard].fetchAnywhere(ticket);
+        } finally {
+            locks[shard].unlock();
+        }
+    }
+
+    private ParkingResult<ParkingTicket> parkInShard(int shard, Car car) {
+        locks[shard].lock();
+        try {
+            ParkingResult<ParkingTicket> result = shards[shard].dispatchPark(car);
+            return result.isSuccessful() ? result : shards[shard].tryPark(car);
+        } finally {
+            locks[shard].unlock();
+        }
+    }
+
+    private int ringIndexOf(Object routingKey) {
+        int index = Arrays.binarySearch(ringPoints, mix(routingKey == null ? 0 : routingKey.hashCode()));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == ringPoints.length ? 0 : index;
+    }
+
+    private void buildRing() {
+        long[] points = new long[ringPoints.length];
+        for (int shard = 0; shard < shards.length; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES_PER_SHARD; node++) {
+                int point = mix(shard * VIRTUAL_NODES_PER_SHARD + node + 0x9E3779B9);
+                points[shard * VIRTUAL_NODES_PER_SHARD + node] = ((long) point << 32) | shard;
+            }
+        }
+        Arrays.sort(points);
+        int[] owners = new int[points.length];
+        for (int index = 0; index < points.length; index++) {
+            ringPoints[index] = (int) (points[index] >> 32);
+            owners[index] = (int) points[index];
+        }
+        for (int index = 0; index < points.length; index++) {
+            int[] successors = new int[shards.length];
+            boolean[] seen = new boolean[shards.length];
+            int found = 0;
+            for (int step = 0; found < shards.length; step++) {
+                int owner = owners[(index + step) % owners.length];
+                if (!seen[owner]) {
+                    seen[owner] = true;
+                    successors[found++] = owner;
+                }
+            }
+            ringShards[index] = successors;
+        }
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
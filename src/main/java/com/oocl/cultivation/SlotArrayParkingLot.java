@@ -0,0 +1,77 @@
+package com.oocl.cultivation;
+
+public class SlotArrayParkingLot extends ParkingLot {
+    private final Car[] cars;
+    private final int[] freeSlots;
+    private int freeSlotCount;
+    private final int[] generations;
+
+    public SlotArrayParkingLot() {
+        this(10);
+    }
+
+    public SlotArrayParkingLot(int capacity) {
+        super(capacity);
+        this.cars = new Car[capacity];
+        this.freeSlots = new int[capacity];
+        this.generations = new int[capacity];
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            freeSlots[freeSlotCount++] = slot;
+        }
+    }
+
+    @Override
+    public int getAvailableParkingPosition() {
+        return freeSlotCount;
+    }
+
+    @Override
+    protected ParkingTicket storeCar(Car car, ParkingPerson issuer, int parkingLotIndex) {
+        if (freeSlotCount == 0) {
+            return null;
+        }
+        int slot = freeSlots[--freeSlotCount];
+        int generation = ++generations[slot];
+        cars[slot] = car;
+        return issueTicket(issuer, parkingLotIndex, slot, generation);
+    }
+
+    @Override
+    protected Car releaseCar(ParkingTicket ticket) {
+        if (!isIssuedByThisParkingLot(ticket) || generations[ticket.getSlot()] != ticket.getGeneration()) {
+            return null;
+        }
+        int slot = ticket.getSlot();
+        generations[slot]++;
+        Car returnCar = cars[slot];
+        cars[slot] = null;
+        freeSlots[freeSlotCount++] = slot;
+        return returnCar;
+    }
+
+    @Override
+    protected int replaceCar(int slot, Car car) {
+        cars[slot] = car;
+        generations[slot] += 2;
+        return generations[slot];
+    }
+
+    @Override
+    protected int getGeneration(int slot) {
+        return generations[slot];
+    }
+
+    @Override
+    protected void restoreSlots(int[] generations) {
+        freeSlotCount = 0;
+        for (int slot = generations.length - 1; slot >= 0; slot--) {
+            this.generations[slot] = generations[slot];
+            if (generations[slot] % 2 == 0) {
+                cars[slot] = null;
+                freeSlots[freeSlotCount++] = slot;
+            } else {
+                cars[slot] = new Car();
+            }
+        }
+    }
+}
@@ -2,26 +2,19 @@ package com.oocl.cultivation;
 
 public class SmartParkingBoy extends ParkingBoy {
 
+    private final IndexedParkingLotHeap mostEmptyPositionsParkingLots;
+
     public SmartParkingBoy(ParkingLot... parkingLots) {
-        super(parkingLots);
+        super(false, parkingLots);
+        this.mostEmptyPositionsParkingLots = new IndexedParkingLotHeap(this.parkingLots, ParkingLotPriority.MOST_EMPTY_POSITIONS);
     }
 
     @Override
-    public ParkingTicket park(Car car) {
-        ParkingLot availableParkingLot = findParkingLotThatContainsMostEmptyPositions();
-        ParkingTicket ticket = parkCarToParkingLot(car, availableParkingLot);
-        return ticket;
+    protected int findAvailableParkingLotIndex() {
+        return findIndexOfParkingLotThatContainsMostEmptyPositions();
     }
 
-    private ParkingLot findParkingLotThatContainsMostEmptyPositions(){
-        ParkingLot mostEmptyPositionsParkingLot = null;
-        int maxNumberOfEmptyPositions = 0;
-        for (ParkingLot parkingLot : this.parkingLots){
-            if (parkingLot.getAvailableParkingPosition() > maxNumberOfEmptyPositions) {
-                maxNumberOfEmptyPositions = parkingLot.getAvailableParkingPosition();
-                mostEmptyPositionsParkingLot = parkingLot;
-            }
-        }
-        return mostEmptyPositionsParkingLot;
+    private int findIndexOfParkingLotThatContainsMostEmptyPositions(){
+        return mostEmptyPositionsParkingLots.peek();
     }
 }
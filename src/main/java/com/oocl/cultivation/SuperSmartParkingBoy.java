@@ -2,26 +2,19 @@ package com.oocl.cultivation;
 
 public class SuperSmartParkingBoy extends ParkingBoy {
 
+    private final IndexedParkingLotHeap largestAvailablePositionRateParkingLots;
+
     public SuperSmartParkingBoy(ParkingLot... parkingLots) {
-        super(parkingLots);
+        super(false, parkingLots);
+        this.largestAvailablePositionRateParkingLots = new IndexedParkingLotHeap(this.parkingLots, ParkingLotPriority.LARGEST_AVAILABLE_POSITION_RATE);
     }
 
     @Override
-    public ParkingTicket park(Car car) {
-        ParkingLot availableParkingLot = findParkingLotThatHasLargestAvailablePositionRate();
-        ParkingTicket ticket = parkCarToParkingLot(car, availableParkingLot);
-        return ticket;
+    protected int findAvailableParkingLotIndex() {
+        return findIndexOfParkingLotThatHasLargestAvailablePositionRate();
     }
 
-    private ParkingLot findParkingLotThatHasLargestAvailablePositionRate(){
-        ParkingLot suitableParkingLot = null;
-        double maxAvailablePositionRate = 0.0;
-        for (ParkingLot parkingLot : this.parkingLots){
-            if (parkingLot.getAvailablePositionRate() > maxAvailablePositionRate) {
-                maxAvailablePositionRate = parkingLot.getAvailablePositionRate();
-                suitableParkingLot = parkingLot;
-            }
-        }
-        return suitableParkingLot;
+    private int findIndexOfParkingLotThatHasLargestAvailablePositionRate(){
+        return largestAvailablePositionRateParkingLots.peek();
     }
 }
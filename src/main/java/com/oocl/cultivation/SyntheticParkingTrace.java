@@ -0,0 +1,57 @@
+package com.oocl.cultivation;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+class SyntheticParkingTrace implements Iterator<ParkingTraceEvent> {
+
+    private final Random random;
+    private final double arrivalsPerMillis;
+    private final long durationMillis;
+    private final long meanStayMillis;
+    private final long carIdStep;
+    private final PriorityQueue<ParkingTraceEvent> departures = new PriorityQueue<>(Comparator.comparingLong(ParkingTraceEvent::getAtMillis));
+    private double nextArrivalMillis;
+    private long nextCarId;
+
+    SyntheticParkingTrace(long seed, double arrivalsPerSecond, long durationMillis, long meanStayMillis, long firstCarId, long carIdStep) {
+        this.random = new Random(seed);
+        this.arrivalsPerMillis = arrivalsPerSecond / 1000.0;
+        this.durationMillis = durationMillis;
+        this.meanStayMillis = meanStayMillis;
+        this.nextCarId = firstCarId;
+        this.carIdStep = carIdStep;
+        this.nextArrivalMillis = exponential(1.0 / arrivalsPerMillis);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextArrivalMillis < durationMillis || !departures.isEmpty();
+    }
+
+    @Override
+    public ParkingTraceEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (!departures.isEmpty() && (nextArrivalMillis >= durationMillis || departures.peek().getAtMillis() <= nextArrivalMillis)) {
+            return departures.poll();
+        }
+        long atMillis = (long) nextArrivalMillis;
+        long carId = nextCarId;
+        nextCarId += carIdStep;
+        nextArrivalMillis += exponential(1.0 / arrivalsPerMillis);
+        long departAtMillis = atMillis + (long) exponential(meanStayMillis);
+        if (departAtMillis < durationMillis) {
+            departures.add(new ParkingTraceEvent(departAtMillis, carId, false));
+        }
+        return new ParkingTraceEvent(atMillis, carId, true);
+    }
+
+    private double exponential(double mean) {
+        return -Math.log(1.0 - random.nextDouble()) * mean;
+    }
+}
@@ -0,0 +1,16 @@
+package com.oocl.cultivation;
+
+class TicketExpiry {
+
+    final ParkingTicket ticket;
+    final long expiresAtTick;
+    TicketExpiry previous;
+    TicketExpiry next;
+    int level = -1;
+    int bucket;
+
+    TicketExpiry(ParkingTicket ticket, long expiresAtTick) {
+        this.ticket = ticket;
+        this.expiresAtTick = expiresAtTick;
+    }
+}
@@ -0,0 +1,206 @@
+package com.oocl.cultivation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TicketExpiryWheel implements ParkingLotListener {
+
+    private static final int BUCKET_BITS = 6;
+    private static final int BUCKET_COUNT = 1 << BUCKET_BITS;
+    private static final int BUCKET_MASK = BUCKET_COUNT - 1;
+    private static final int LEVEL_COUNT = 4;
+    private static final long MAX_TICKS_AHEAD = (1L << (BUCKET_BITS * LEVEL_COUNT)) - 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long tickMillis;
+    private final long maxStayMillis;
+    private final long startMillis;
+    private final TicketExpiry[][] buckets = new TicketExpiry[LEVEL_COUNT][BUCKET_COUNT];
+    private final Map<ParkingLot, TicketExpiry[]> expiriesBySlot = new IdentityHashMap<>();
+    private long currentTick;
+    private int size;
+
+    public TicketExpiryWheel(long tickMillis, long maxStayMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.maxStayMillis = maxStayMillis;
+        this.startMillis = startMillis;
+    }
+
+    public void watch(ParkingLot... parkingLots) {
+        for (ParkingLot parkingLot : parkingLots) {
+            parkingLot.addListener(this);
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onAvailableParkingPositionChanged(ParkingLot parkingLot) {
+    }
+
+    @Override
+    public void onCarParked(ParkingLot parkingLot, ParkingTicket ticket) {
+        if (maxStayMillis > 0) {
+            schedule(ticket, ticket.getParkedAtMillis() + maxStayMillis);
+        }
+    }
+
+    @Override
+    public void onCarReturned(ParkingLot parkingLot, ParkingTicket ticket) {
+        cancel(ticket);
+    }
+
+    public void schedule(ParkingTicket ticket, long expiresAtMillis) {
+        lock.lock();
+        try {
+            TicketExpiry[] slots = slotsOf(ticket.getParkingLot());
+            int slot = ticket.getSlot();
+            if (slots == null || slot < 0 || slot >= slots.length) {
+                throw new IllegalArgumentException("ticket was not issued by a parking lot");
+            }
+            if (slots[slot] != null) {
+                unlink(slots[slot]);
+                size--;
+            }
+            TicketExpiry expiry = new TicketExpiry(ticket, Math.floorDiv(expiresAtMillis - startMillis, tickMillis));
+            slots[slot] = expiry;
+            insert(expiry, currentTick + 1);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean cancel(ParkingTicket ticket) {
+        lock.lock();
+        try {
+            TicketExpiry expiry = findExpiry(ticket);
+            if (expiry == null) {
+                return false;
+            }
+            unlink(expiry);
+            expiriesBySlot.get(ticket.getParkingLot())[ticket.getSlot()] = null;
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<ParkingTicket> advanceTo(long nowMillis) {
+        lock.lock();
+        try {
+            List<ParkingTicket> expiredTickets = new ArrayList<>();
+            long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+            while (currentTick < targetTick) {
+                if (size == 0) {
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                for (int level = LEVEL_COUNT - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (BUCKET_BITS * level)) - 1)) == 0) {
+                        cascade(level, (int) (currentTick >>> (BUCKET_BITS * level)) & BUCKET_MASK);
+                    }
+                }
+                expire((int) currentTick & BUCKET_MASK, expiredTickets);
+            }
+            return expiredTickets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cascade(int level, int bucket) {
+        TicketExpiry expiry = buckets[level][bucket];
+        buckets[level][bucket] = null;
+        while (expiry != null) {
+            TicketExpiry next = expiry.next;
+            insert(expiry, currentTick);
+            expiry = next;
+        }
+    }
+
+    private void expire(int bucket, List<ParkingTicket> expiredTickets) {
+        TicketExpiry expiry = buckets[0][bucket];
+        buckets[0][bucket] = null;
+        while (expiry != null) {
+            TicketExpiry next = expiry.next;
+            if (expiry.expiresAtTick <= currentTick) {
+                expiry.level = -1;
+                expiriesBySlot.get(expiry.ticket.getParkingLot())[expiry.ticket.getSlot()] = null;
+                expiredTickets.add(expiry.ticket);
+                size--;
+            } else {
+                insert(expiry, currentTick + 1);
+            }
+            expiry = next;
+        }
+    }
+
+    private void insert(TicketExpiry expiry, long earliestTick) {
+        long expiresAtTick = Math.max(expiry.expiresAtTick, earliestTick);
+        long ticksAhead = Math.min(expiresAtTick - currentTick, MAX_TICKS_AHEAD);
+        int level = 0;
+        while (ticksAhead >= 1L << (BUCKET_BITS * (level + 1))) {
+            level++;
+        }
+        int bucket = (int) ((currentTick + ticksAhead) >>> (BUCKET_BITS * level)) & BUCKET_MASK;
+        expiry.level = level;
+        expiry.bucket = bucket;
+        expiry.previous = null;
+        expiry.next = buckets[level][bucket];
+        if (expiry.next != null) {
+            expiry.next.previous = expiry;
+        }
+        buckets[level][bucket] = expiry;
+    }
+
+    private void unlink(TicketExpiry expiry) {
+        if (expiry.previous == null) {
+            buckets[expiry.level][expiry.bucket] = expiry.next;
+        } else {
+            expiry.previous.next = expiry.next;
+        }
+        if (expiry.next != null) {
+            expiry.next.previous = expiry.previous;
+        }
+        expiry.previous = null;
+        expiry.next = null;
+        expiry.level = -1;
+    }
+
+    private TicketExpiry findExpiry(ParkingTicket ticket) {
+        TicketExpiry[] slots = ticket == null ? null : expiriesBySlot.get(ticket.getParkingLot());
+        if (slots == null || ticket.getSlot() < 0 || ticket.getSlot() >= slots.length) {
+            return null;
+        }
+        TicketExpiry expiry = slots[ticket.getSlot()];
+        return expiry != null && expiry.ticket.getGeneration() == ticket.getGeneration() ? expiry : null;
+    }
+
+    private TicketExpiry[] slotsOf(ParkingLot parkingLot) {
+        if (parkingLot == null) {
+            return null;
+        }
+        TicketExpiry[] slots = expiriesBySlot.get(parkingLot);
+        if (slots == null) {
+            slots = new TicketExpiry[parkingLot.getCapacity()];
+            expiriesBySlot.put(parkingLot, slots);
+        }
+        return slots;
+    }
+}
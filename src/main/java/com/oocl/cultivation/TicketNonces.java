@@ -0,0 +1,31 @@
+package com.oocl.cultivation;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+
+final class TicketNonces {
+
+    private static final int BATCH_SIZE = 64;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<TicketNonces> NONCES = ThreadLocal.withInitial(TicketNonces::new);
+
+    private final byte[] randomBytes = new byte[BATCH_SIZE * 4];
+    private final int[] nonces = new int[BATCH_SIZE];
+    private int next = BATCH_SIZE;
+
+    private TicketNonces() {
+    }
+
+    static int next() {
+        return NONCES.get().nextNonce();
+    }
+
+    private int nextNonce() {
+        if (next == BATCH_SIZE) {
+            RANDOM.nextBytes(randomBytes);
+            ByteBuffer.wrap(randomBytes).asIntBuffer().get(nonces);
+            next = 0;
+        }
+        return nonces[next++] & ParkingTicket.NONCE_MASK;
+    }
+}
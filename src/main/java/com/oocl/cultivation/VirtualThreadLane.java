@@ -0,0 +1,21 @@
+package com.oocl.cultivation;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+class VirtualThreadLane implements Executor {
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    @Override
+    public void execute(Runnable task) {
+        Thread.startVirtualThread(() -> {
+            lock.lock();
+            try {
+                task.run();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,340 @@
+package com.oocl.cultivation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class WriteAheadLog implements ParkingLotListener, Closeable {
+
+    static final int RECORD_SIZE = 21;
+    private static final int RECORDS_PER_REGION = 1 << 16;
+    private static final long REGION_SIZE = (long) RECORD_SIZE * RECORDS_PER_REGION;
+    private static final byte COMMITTED = 1;
+    private static final int LOG_MAGIC = 0x50574C33;
+    private static final int LOG_HEADER_SIZE = 16;
+    private static final int SNAPSHOT_MAGIC = 0x50534E33;
+    private static final int SNAPSHOT_HEADER_SIZE = 16;
+
+    private final Path path;
+    private final Path previousPath;
+    private final Path snapshotPath;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final int syncBatchSize;
+    private final ParkingLot[] parkingLots;
+    private final Map<ParkingLot, Integer> parkingLotIds = new IdentityHashMap<>();
+    private FileChannel channel;
+    private long baseRecord;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long recordCount;
+    private int unsyncedRecords;
+
+    public WriteAheadLog(Path path, int syncBatchSize, ParkingLot... parkingLots) throws IOException {
+        if (syncBatchSize < 1) {
+            throw new IllegalArgumentException("syncBatchSize must be positive");
+        }
+        this.path = path;
+        this.previousPath = path.resolveSibling(path.getFileName() + ".previous");
+        this.snapshotPath = path.resolveSibling(path.getFileName() + ".snapshot");
+        this.syncBatchSize = syncBatchSize;
+        this.parkingLots = parkingLots.clone();
+        for (int id = 0; id < parkingLots.length; id++) {
+            parkingLotIds.put(parkingLots[id], id);
+        }
+        int[][] generations = new int[parkingLots.length][];
+        int[][] nonces = new int[parkingLots.length][];
+        int[][] issuers = new int[parkingLots.length][];
+        recordCount = loadSnapshot(generations, nonces, issuers);
+        boolean interruptedSnapshot = Files.exists(previousPath);
+        if (interruptedSnapshot) {
+            try (FileChannel previousChannel = FileChannel.open(previousPath, StandardOpenOption.READ)) {
+                replay(previousChannel, readBaseRecord(previousChannel), generations, nonces, issuers);
+            }
+        }
+        this.channel = openLog(path, recordCount);
+        this.baseRecord = readBaseRecord(channel);
+        replay(channel, baseRecord, generations, nonces, issuers);
+        for (int id = 0; id < parkingLots.length; id++) {
+            if (generations[id] != null) {
+                parkingLots[id].restore(generations[id], nonces[id], issuers[id]);
+            }
+        }
+        if (interruptedSnapshot) {
+            writeSnapshot(recordCount);
+            Files.delete(previousPath);
+        }
+        for (ParkingLot parkingLot : parkingLots) {
+            parkingLot.addListener(this);
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void onAvailableParkingPositionChanged(ParkingLot parkingLot) {
+    }
+
+    @Override
+    public void onCarParked(ParkingLot parkingLot, ParkingTicket ticket) {
+        append(parkingLot, ticket.getSlot(), ticket.getGeneration(), ticket.getNonce(), issuerIdOf(ticket));
+    }
+
+    @Override
+    public void onCarReturned(ParkingLot parkingLot, ParkingTicket ticket) {
+        append(parkingLot, ticket.getSlot(), ticket.getGeneration() + 1, ticket.getNonce(), issuerIdOf(ticket));
+    }
+
+    public Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public long snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long startRecord;
+            MappedByteBuffer previousRegion;
+            lock.lock();
+            try {
+                previousRegion = rotate();
+                startRecord = recordCount;
+            } finally {
+                lock.unlock();
+            }
+            if (previousRegion != null) {
+                previousRegion.force();
+            }
+            writeSnapshot(startRecord);
+            Files.delete(previousPath);
+            return startRecord;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    public ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(() -> {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, period, period, unit);
+    }
+
+    public void sync() {
+        MappedByteBuffer unsyncedRegion;
+        lock.lock();
+        try {
+            unsyncedRegion = region;
+            unsyncedRecords = 0;
+        } finally {
+            lock.unlock();
+        }
+        if (unsyncedRegion != null) {
+            unsyncedRegion.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ParkingLot parkingLot : parkingLots) {
+            parkingLot.removeListener(this);
+        }
+        lock.lock();
+        try {
+            if (region != null) {
+                region.force();
+            }
+            region = null;
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(ParkingLot parkingLot, int slot, int generation, int nonce, int issuer) {
+        MappedByteBuffer filledRegion = null;
+        MappedByteBuffer unsyncedRegion = null;
+        lock.lock();
+        try {
+            long position = LOG_HEADER_SIZE + (recordCount - baseRecord) * RECORD_SIZE;
+            if (region == null || position - regionStart >= REGION_SIZE) {
+                filledRegion = region;
+                unsyncedRecords = 0;
+                region = mapRegion(channel, FileChannel.MapMode.READ_WRITE, position, Long.MAX_VALUE);
+            }
+            int offset = (int) (position - regionStart);
+            region.putInt(offset, parkingLotIds.get(parkingLot));
+            region.putInt(offset + 4, slot);
+            region.putInt(offset + 8, generation);
+            region.putInt(offset + 12, nonce);
+            region.putInt(offset + 16, issuer);
+            region.put(offset + 20, COMMITTED);
+            recordCount++;
+            if (++unsyncedRecords >= syncBatchSize) {
+                unsyncedRegion = region;
+                unsyncedRecords = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (filledRegion != null) {
+            filledRegion.force();
+        }
+        if (unsyncedRegion != null) {
+            unsyncedRegion.force();
+        }
+    }
+
+    private static int issuerIdOf(ParkingTicket ticket) {
+        return ParkingLot.issuerIdOf(ticket.getIssuer(), ticket.getParkingLotIndex());
+    }
+
+    private MappedByteBuffer rotate() throws IOException {
+        MappedByteBuffer previousRegion = region;
+        region = null;
+        unsyncedRecords = 0;
+        channel.close();
+        Files.move(path, previousPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openLog(path, recordCount);
+        baseRecord = recordCount;
+        return previousRegion;
+    }
+
+    private MappedByteBuffer mapRegion(FileChannel logChannel, FileChannel.MapMode mode, long position, long maxSize) {
+        regionStart = position - (position - LOG_HEADER_SIZE) % REGION_SIZE;
+        try {
+            return logChannel.map(mode, regionStart, Math.min(REGION_SIZE, maxSize - regionStart));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileChannel openLog(Path path, long baseRecord) throws IOException {
+        FileChannel logChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (logChannel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE).putInt(LOG_MAGIC).putLong(baseRecord);
+            header.rewind();
+            logChannel.write(header, 0);
+            logChannel.force(true);
+        }
+        return logChannel;
+    }
+
+    private static long readBaseRecord(FileChannel logChannel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        if (logChannel.read(header, 0) < LOG_HEADER_SIZE || header.getInt(0) != LOG_MAGIC) {
+            throw new IOException("Not a parking write-ahead log.");
+        }
+        return header.getLong(4);
+    }
+
+    private void writeSnapshot(long startRecord) throws IOException {
+        long size = SNAPSHOT_HEADER_SIZE;
+        for (ParkingLot parkingLot : parkingLots) {
+            size += 4L + 12L * parkingLot.getCapacity();
+        }
+        Path temporaryPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel snapshotChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = snapshotChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(SNAPSHOT_MAGIC).putLong(startRecord).putInt(parkingLots.length);
+            for (ParkingLot parkingLot : parkingLots) {
+                int[] generations = parkingLot.copyGenerations();
+                int[] nonces = parkingLot.copyNonces();
+                int[] issuers = parkingLot.copyIssuers();
+                buffer.putInt(generations.length);
+                buffer.asIntBuffer().put(generations).put(nonces).put(issuers);
+                buffer.position(buffer.position() + 12 * generations.length);
+            }
+            buffer.force();
+        }
+        Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long loadSnapshot(int[][] generations, int[][] nonces, int[][] issuers) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+        try (FileChannel snapshotChannel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = snapshotChannel.map(FileChannel.MapMode.READ_ONLY, 0, snapshotChannel.size());
+            if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC) {
+                return 0;
+            }
+            long startRecord = buffer.getLong();
+            if (buffer.getInt() != parkingLots.length) {
+                return 0;
+            }
+            int[][] snapshotGenerations = new int[parkingLots.length][];
+            int[][] snapshotNonces = new int[parkingLots.length][];
+            int[][] snapshotIssuers = new int[parkingLots.length][];
+            for (int id = 0; id < parkingLots.length; id++) {
+                int capacity = parkingLots[id].getCapacity();
+                if (buffer.remaining() < 4 + 12L * capacity || buffer.getInt() != capacity) {
+                    return 0;
+                }
+                snapshotGenerations[id] = new int[capacity];
+                snapshotNonces[id] = new int[capacity];
+                snapshotIssuers[id] = new int[capacity];
+                buffer.asIntBuffer().get(snapshotGenerations[id]).get(snapshotNonces[id]).get(snapshotIssuers[id]);
+                buffer.position(buffer.position() + 12 * capacity);
+            }
+            System.arraycopy(snapshotGenerations, 0, generations, 0, generations.length);
+            System.arraycopy(snapshotNonces, 0, nonces, 0, nonces.length);
+            System.arraycopy(snapshotIssuers, 0, issuers, 0, issuers.length);
+            return startRecord;
+        }
+    }
+
+    private void replay(FileChannel logChannel, long logBaseRecord, int[][] generations, int[][] nonces, int[][] issuers) throws IOException {
+        long fileSize = logChannel.size();
+        recordCount = Math.max(recordCount, logBaseRecord);
+        boolean committed = true;
+        while (committed && LOG_HEADER_SIZE + (recordCount - logBaseRecord + 1) * RECORD_SIZE <= fileSize) {
+            long position = LOG_HEADER_SIZE + (recordCount - logBaseRecord) * RECORD_SIZE;
+            region = mapRegion(logChannel, FileChannel.MapMode.READ_ONLY, position, fileSize);
+            for (int offset = (int) (position - regionStart); offset + RECORD_SIZE <= region.capacity(); offset += RECORD_SIZE) {
+                if (region.get(offset + 20) != COMMITTED) {
+                    committed = false;
+                    break;
+                }
+                apply(generations, nonces, issuers, region.getInt(offset), region.getInt(offset + 4), region.getInt(offset + 8),
+                        region.getInt(offset + 12), region.getInt(offset + 16));
+                recordCount++;
+            }
+        }
+        region = null;
+    }
+
+    private void apply(int[][] generations, int[][] nonces, int[][] issuers, int parkingLotId, int slot, int generation, int nonce, int issuer) {
+        if (parkingLotId < 0 || parkingLotId >= parkingLots.length || slot < 0 || slot >= parkingLots[parkingLotId].getCapacity()) {
+            return;
+        }
+        if (generations[parkingLotId] == null) {
+            generations[parkingLotId] = parkingLots[parkingLotId].copyGenerations();
+            nonces[parkingLotId] = parkingLots[parkingLotId].copyNonces();
+            issuers[parkingLotId] = parkingLots[parkingLotId].copyIssuers();
+        }
+        if (generation >= generations[parkingLotId][slot]) {
+            generations[parkingLotId][slot] = generation;
+            nonces[parkingLotId][slot] = nonce;
+            issuers[parkingLotId][slot] = issuer;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.Car;
+import com.oocl.cultivation.ConcurrentParkingLot;
+import com.oocl.cultivation.ParkingLot;
+import com.oocl.cultivation.ParkingTicket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentParkingLotTest {
+
+    @Test
+    void should_return_correct_number_of_available_parking_position_after_parking_car(){
+        ParkingLot parkingLot = new ConcurrentParkingLot();
+
+        parkingLot.parkCar(new Car());
+
+        assertEquals(9, parkingLot.getAvailableParkingPosition());
+        assertEquals(0.9, parkingLot.getAvailablePositionRate());
+    }
+
+    @Test
+    void should_not_park_car_when_parking_lot_is_full(){
+        ParkingLot parkingLot = new ConcurrentParkingLot(1);
+
+        parkingLot.parkCar(new Car());
+
+        assertNull(parkingLot.parkCar(new Car()));
+        assertEquals(0, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_return_car_only_once(){
+        ParkingLot parkingLot = new ConcurrentParkingLot(1);
+        Car car = new Car();
+
+        ParkingTicket ticket = parkingLot.parkCar(car);
+
+        assertSame(car, parkingLot.returnCar(ticket));
+        assertNull(parkingLot.returnCar(ticket));
+        assertNull(parkingLot.returnCar(null));
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_overfill_parking_lot_when_cars_are_parked_concurrently() throws Exception {
+        int capacity = 50;
+        ParkingLot parkingLot = new ConcurrentParkingLot(capacity);
+        ExecutorService gates = Executors.newFixedThreadPool(8);
+        List<Future<ParkingTicket>> tickets = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            tickets.add(gates.submit(() -> parkingLot.parkCar(new Car())));
+        }
+        int parkedCars = 0;
+        for (Future<ParkingTicket> ticket : tickets) {
+            if (ticket.get() != null) {
+                parkedCars++;
+            }
+        }
+        gates.shutdown();
+
+        assertEquals(capacity, parkedCars);
+        assertEquals(0, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_give_every_car_back_to_its_own_ticket_when_positions_are_reused_concurrently() throws Exception {
+        ParkingLot parkingLot = new ConcurrentParkingLot(16);
+        ExecutorService gates = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int gate = 0; gate < 8; gate++) {
+            results.add(gates.submit(() -> {
+                int returnedCars = 0;
+                for (int count = 0; count < 50_000; count++) {
+                    Car car = new Car();
+                    ParkingTicket ticket = parkingLot.parkCar(car);
+                    if (ticket != null) {
+                        assertSame(car, parkingLot.returnCar(ticket));
+                        returnedCars++;
+                    }
+                }
+                return returnedCars;
+            }));
+        }
+        int returnedCars = 0;
+        for (Future<Integer> result : results) {
+            returnedCars += result.get();
+        }
+        gates.shutdown();
+
+        assertEquals(400_000, returnedCars);
+        assertEquals(16, parkingLot.getAvailableParkingPosition());
+    }
+}
@@ -1,11 +1,15 @@
 package com.oocl.cultivation.test;
 
-import com.oocl.cultivation.Car;
-import com.oocl.cultivation.ParkingBoy;
-import com.oocl.cultivation.ParkingLot;
-import com.oocl.cultivation.ParkingTicket;
+import com.oocl.cultivation.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ParkingBoyFacts {
@@ -244,4 +248,165 @@ class ParkingBoyFacts {
 
         assertEquals("The parking lot is full.", parkingBoy.getLastErrorMessage());
     }
+
+    @Test
+    void should_park_car_to_the_first_parking_lot_again_once_it_has_an_empty_position() {
+        ParkingLot firstParkingLot = new ParkingLot(1);
+        ParkingLot secondParkingLot = new ParkingLot(1);
+        ParkingLot thirdParkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot, secondParkingLot, thirdParkingLot);
+        ParkingTicket firstTicket = parkingBoy.park(new Car());
+        parkingBoy.park(new Car());
+        parkingBoy.park(new Car());
+        assertEquals(9, thirdParkingLot.getAvailableParkingPosition());
+
+        parkingBoy.fetch(firstTicket);
+        parkingBoy.park(new Car());
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(9, thirdParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_return_result_with_ticket_and_car_when_parking_and_fetching_succeeded() {
+        ParkingBoy parkingBoy = new ParkingBoy(new ParkingLot());
+        Car car = new Car();
+
+        ParkingResult<ParkingTicket> parkingResult = parkingBoy.tryPark(car);
+        ParkingResult<Car> fetchingResult = parkingBoy.tryFetch(parkingResult.getValue());
+
+        assertTrue(parkingResult.isSuccessful());
+        assertTrue(fetchingResult.isSuccessful());
+        assertSame(car, fetchingResult.getValue());
+        assertNull(fetchingResult.getErrorMessage());
+    }
+
+    @Test
+    void should_return_result_with_error_without_changing_last_error_message() {
+        ParkingBoy parkingBoy = new ParkingBoy(new ParkingLot(1));
+        parkingBoy.park(new Car());
+
+        ParkingResult<ParkingTicket> parkingResult = parkingBoy.tryPark(new Car());
+        ParkingResult<Car> wrongTicketResult = parkingBoy.tryFetch(new ParkingTicket());
+        ParkingResult<Car> noTicketResult = parkingBoy.tryFetch(null);
+
+        assertNull(parkingResult.getValue());
+        assertEquals(ParkingError.PARKING_LOT_FULL, parkingResult.getError());
+        assertEquals("Unrecognized parking ticket.", wrongTicketResult.getErrorMessage());
+        assertEquals("Please provide your parking ticket.", noTicketResult.getErrorMessage());
+        assertNull(parkingBoy.getLastErrorMessage());
+    }
+
+    @Test
+    void should_park_and_fetch_cars_when_a_parking_boy_is_shared_by_multiple_threads() throws Exception {
+        ParkingLot firstParkingLot = new ConcurrentParkingLot(100);
+        ParkingLot secondParkingLot = new ConcurrentParkingLot(100);
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot, secondParkingLot);
+        ExecutorService gates = Executors.newFixedThreadPool(8);
+        List<Future<ParkingResult<ParkingTicket>>> parkingResults = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            parkingResults.add(gates.submit(() -> parkingBoy.tryPark(new Car())));
+        }
+        List<ParkingTicket> tickets = new ArrayList<>();
+        int rejectedCars = 0;
+        for (Future<ParkingResult<ParkingTicket>> parkingResult : parkingResults) {
+            if (parkingResult.get().isSuccessful()) {
+                tickets.add(parkingResult.get().getValue());
+            } else {
+                rejectedCars++;
+            }
+        }
+        List<Future<ParkingResult<Car>>> fetchingResults = new ArrayList<>();
+        for (ParkingTicket ticket : tickets) {
+            fetchingResults.add(gates.submit(() -> parkingBoy.tryFetch(ticket)));
+        }
+        for (Future<ParkingResult<Car>> fetchingResult : fetchingResults) {
+            assertTrue(fetchingResult.get().isSuccessful());
+        }
+        gates.shutdown();
+
+        assertEquals(50, rejectedCars);
+        assertEquals(100, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(100, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_fetch_car_by_ticket_provided_by_another_parking_boy_of_the_same_parking_lot() {
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        ParkingBoy anotherParkingBoy = new ParkingBoy(parkingLot);
+        Car car = new Car();
+
+        ParkingTicket ticket = anotherParkingBoy.park(car);
+
+        assertNull(parkingBoy.fetch(ticket));
+        assertEquals("Unrecognized parking ticket.", parkingBoy.getLastErrorMessage());
+        assertSame(car, anotherParkingBoy.fetch(ticket));
+    }
+
+    @Test
+    void should_not_recover_ticket_number_issued_by_another_parking_boy_of_the_same_parking_lot() {
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        ParkingBoy anotherParkingBoy = new ParkingBoy(parkingLot);
+        Car car = new Car();
+
+        ParkingTicket ticket = anotherParkingBoy.park(car);
+
+        assertEquals(ParkingError.UNRECOGNIZED_PARKING_TICKET, parkingBoy.recoverTicket(ticket.getNumber()).getError());
+        assertSame(car, anotherParkingBoy.fetch(anotherParkingBoy.recoverTicket(ticket.getNumber()).getValue()));
+    }
+
+    @Test
+    void should_park_a_batch_of_cars_sequentially_and_get_them_back() {
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(2);
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot, secondParkingLot);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+        Car thirdCar = new Car();
+
+        List<ParkingResult<ParkingTicket>> results = parkingBoy.parkAll(firstCar, secondCar, thirdCar);
+
+        assertEquals(3, results.size());
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+        assertSame(firstCar, parkingBoy.fetch(results.get(0).getValue()));
+        assertSame(secondCar, parkingBoy.fetch(results.get(1).getValue()));
+        assertSame(thirdCar, parkingBoy.fetch(results.get(2).getValue()));
+    }
+
+    @Test
+    void should_return_failure_for_each_car_that_cannot_be_parked_in_a_batch() {
+        ParkingLot parkingLot = new ParkingLot(1);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+
+        List<ParkingResult<ParkingTicket>> results = parkingBoy.parkAll(Arrays.asList(new Car(), new Car(), new Car()));
+
+        assertTrue(results.get(0).isSuccessful());
+        assertEquals("The parking lot is full.", results.get(1).getErrorMessage());
+        assertEquals("The parking lot is full.", results.get(2).getErrorMessage());
+        assertNull(parkingBoy.getLastErrorMessage());
+    }
+
+    @Test
+    void should_fetch_a_batch_of_cars_from_multiple_parking_lots_and_report_error_for_each_wrong_ticket() {
+        ParkingLot firstParkingLot = new ParkingLot(1);
+        ParkingLot secondParkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot, secondParkingLot);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+        ParkingTicket firstTicket = parkingBoy.park(firstCar);
+        ParkingTicket secondTicket = parkingBoy.park(secondCar);
+
+        List<ParkingResult<Car>> results = parkingBoy.fetchAll(Arrays.asList(secondTicket, new ParkingTicket(), null, firstTicket, secondTicket));
+
+        assertSame(secondCar, results.get(0).getValue());
+        assertEquals("Unrecognized parking ticket.", results.get(1).getErrorMessage());
+        assertEquals("Please provide your parking ticket.", results.get(2).getErrorMessage());
+        assertSame(firstCar, results.get(3).getValue());
+        assertEquals("Unrecognized parking ticket.", results.get(4).getErrorMessage());
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(10, secondParkingLot.getAvailableParkingPosition());
+    }
 }
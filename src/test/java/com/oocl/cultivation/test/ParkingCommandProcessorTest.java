@@ -0,0 +1,99 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingCommandProcessorTest {
+
+    @Test
+    void should_park_and_fetch_car_by_manager_ticket_number() throws IOException {
+        ParkingCommandProcessor processor = new ParkingCommandProcessor(2, new ParkingLot(1));
+        StringWriter parkingOutput = new StringWriter();
+        StringWriter fetchingOutput = new StringWriter();
+
+        processor.process(new StringReader("park\n"), parkingOutput);
+        String ticketNumber = parkingOutput.toString().trim().split(" ")[2];
+        long commands = processor.process(new StringReader("fetch 0 " + ticketNumber + "\nfetch 0 " + ticketNumber + "\n"), fetchingOutput);
+
+        assertTrue(parkingOutput.toString().startsWith("ok 0 "));
+        assertEquals(2, commands);
+        assertEquals("ok\nerror Unrecognized parking ticket.\n", fetchingOutput.toString());
+    }
+
+    @Test
+    void should_not_fetch_car_with_guessed_ticket_number() throws IOException {
+        ParkingCommandProcessor processor = new ParkingCommandProcessor(1, new ParkingLot(1));
+        StringWriter output = new StringWriter();
+
+        processor.process(new StringReader("hire standard 0\npark 1\nfetch 1 0\nfetch 1 1\nfetch 1 2\n"), output);
+
+        String[] lines = output.toString().split("\n");
+        assertTrue(lines[1].startsWith("ok 1 "));
+        assertEquals("error Unrecognized parking ticket.", lines[2]);
+        assertEquals("error Unrecognized parking ticket.", lines[3]);
+        assertEquals("error Unrecognized parking ticket.", lines[4]);
+    }
+
+    @Test
+    void should_run_commands_through_hired_parking_boys() throws IOException {
+        ParkingCommandProcessor processor = new ParkingCommandProcessor(1, new ParkingLot(1), new ParkingLot(1));
+        StringWriter output = new StringWriter();
+
+        processor.process(new StringReader("hire smart 1\r\npark 1\r\ndispatch\r\ndismiss 1\r\n"), output);
+        String[] lines = output.toString().split("\n");
+        processor.process(new StringReader("fetch 1 " + lines[1].split(" ")[2]), output);
+
+        lines = output.toString().split("\n");
+        assertEquals("ok 1", lines[0]);
+        assertTrue(lines[1].startsWith("ok 1 "));
+        assertEquals("error The parking lot is full.", lines[2]);
+        assertEquals("ok", lines[3]);
+        assertEquals("error That parking boy is not under management.", lines[4]);
+    }
+
+    @Test
+    void should_skip_blank_lines_and_comments_and_report_bad_commands() throws IOException {
+        ParkingCommandProcessor processor = new ParkingCommandProcessor(16, new ParkingLot());
+        StringWriter output = new StringWriter();
+
+        long commands = processor.process(new StringReader("# replay\n\n   \nleave\npark 7\nfetch 0 x\nhire clever 0\n"), output);
+
+        assertEquals(4, commands);
+        assertEquals("error Unknown command.\nerror Unknown parking boy.\nerror Invalid number.\n"
+                + "error Unknown parking boy kind.\n", output.toString());
+    }
+
+    @Test
+    void should_log_staff_changes_so_hired_parking_boys_can_be_restored() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        StringWriter staffLog = new StringWriter();
+        StringWriter output = new StringWriter();
+        ParkingLot parkingLot = new ParkingLot(2);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, parkingLot)) {
+            ParkingCommandProcessor processor = new ParkingCommandProcessor(1, parkingLot);
+            processor.setStaffLog(staffLog);
+            processor.process(new StringReader("hire standard 0\npark 1\nhire smart 0\ndismiss 2\nhire clever 0\n"), output);
+        }
+        String ticketNumber = output.toString().split("\n")[1].split(" ")[2];
+
+        ParkingLot restoredParkingLot = new ParkingLot(2);
+        StringWriter restoredOutput = new StringWriter();
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, restoredParkingLot)) {
+            ParkingCommandProcessor restoredProcessor = new ParkingCommandProcessor(1, restoredParkingLot);
+            restoredProcessor.process(new StringReader(staffLog.toString()), new StringWriter());
+            restoredProcessor.process(new StringReader("fetch 0 " + ticketNumber + "\nfetch 1 " + ticketNumber + "\npark 2\n"), restoredOutput);
+        }
+        Files.delete(path);
+
+        assertEquals("hire standard 0\nhire smart 0\ndismiss 2\n", staffLog.toString());
+        assertEquals("error Unrecognized parking ticket.\nok\nerror That parking boy is not under management.\n", restoredOutput.toString());
+    }
+}
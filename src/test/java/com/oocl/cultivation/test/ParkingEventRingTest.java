@@ -0,0 +1,148 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingEventRingTest {
+
+    @Test
+    void should_deliver_park_and_fetch_events_in_one_batch(){
+        ParkingEventRing ring = new ParkingEventRing(8);
+        ParkingLot parkingLot = new ParkingLot();
+        List<ParkingEventType> types = new ArrayList<>();
+        List<Long> ticketNumbers = new ArrayList<>();
+        List<Boolean> endOfBatches = new ArrayList<>();
+        ParkingEventProcessor processor = ring.addHandler((event, sequence, endOfBatch) -> {
+            assertSame(parkingLot, event.getParkingLot());
+            assertTrue(event.getTimestampMillis() > 0);
+            types.add(event.getType());
+            ticketNumbers.add(event.getTicketNumber());
+            endOfBatches.add(endOfBatch);
+        });
+        ring.publishFrom(parkingLot);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+
+        ParkingTicket ticket = parkingBoy.park(new Car());
+        parkingBoy.fetch(ticket);
+
+        assertEquals(2, processor.poll());
+        assertEquals(0, processor.poll());
+        assertEquals(ParkingEventType.CAR_PARKED, types.get(0));
+        assertEquals(ParkingEventType.CAR_FETCHED, types.get(1));
+        assertEquals(ticket.getNumber(), (long) ticketNumbers.get(0));
+        assertEquals(ticket.getNumber(), (long) ticketNumbers.get(1));
+        assertFalse(endOfBatches.get(0));
+        assertTrue(endOfBatches.get(1));
+    }
+
+    @Test
+    void should_drop_events_instead_of_blocking_when_slowest_handler_is_a_full_ring_behind(){
+        ParkingEventRing ring = new ParkingEventRing(2);
+        ParkingLot parkingLot = new ParkingLot();
+        AtomicLong handled = new AtomicLong();
+        ParkingEventProcessor processor = ring.addHandler((event, sequence, endOfBatch) -> handled.incrementAndGet());
+        ring.publishFrom(parkingLot);
+
+        parkingLot.parkCar(new Car());
+        parkingLot.parkCar(new Car());
+        parkingLot.parkCar(new Car());
+
+        assertEquals(7, parkingLot.getAvailableParkingPosition());
+        assertEquals(1, ring.getDroppedEvents());
+        assertEquals(2, processor.poll());
+        parkingLot.parkCar(new Car());
+        assertEquals(1, processor.poll());
+        assertEquals(3, handled.get());
+    }
+
+    @Test
+    void should_wait_for_slowest_handler_instead_of_dropping_events_when_asked_to() throws InterruptedException {
+        ParkingEventRing ring = new ParkingEventRing(2, ParkingEventOverflowPolicy.WAIT);
+        ParkingLot parkingLot = new ParkingLot(100);
+        AtomicLong handled = new AtomicLong();
+        ParkingEventProcessor processor = ring.addHandler((event, sequence, endOfBatch) -> handled.incrementAndGet());
+        ring.publishFrom(parkingLot);
+        Thread consumer = new Thread(processor);
+        consumer.start();
+
+        for (int count = 0; count < 100; count++) {
+            parkingLot.parkCar(new Car());
+        }
+        processor.halt();
+        consumer.join(10_000);
+
+        assertEquals(ParkingEventOverflowPolicy.WAIT, ring.getOverflowPolicy());
+        assertEquals(0, ring.getDroppedEvents());
+        assertEquals(100, handled.get());
+    }
+
+    @Test
+    void should_report_handler_failure_and_keep_consuming_events() throws InterruptedException {
+        ParkingEventRing ring = new ParkingEventRing(2, ParkingEventOverflowPolicy.WAIT);
+        ParkingLot parkingLot = new ParkingLot(100);
+        AtomicLong handled = new AtomicLong();
+        AtomicLong reported = new AtomicLong();
+        ParkingEventProcessor processor = ring.addHandler((event, sequence, endOfBatch) -> {
+            if (sequence == 0) {
+                throw new IllegalStateException("billing is down");
+            }
+            handled.incrementAndGet();
+        });
+        ring.publishFrom(parkingLot);
+        Thread consumer = new Thread(processor);
+        consumer.setUncaughtExceptionHandler((thread, e) -> reported.incrementAndGet());
+        consumer.start();
+
+        for (int count = 0; count < 100; count++) {
+            parkingLot.parkCar(new Car());
+        }
+        processor.halt();
+        consumer.join(10_000);
+
+        assertEquals(1, reported.get());
+        assertEquals(99, handled.get());
+        assertEquals(ParkingEventOverflowPolicy.DROP, new ParkingEventRing(2).getOverflowPolicy());
+    }
+
+    @Test
+    void should_deliver_every_event_from_multiple_producers_to_every_handler() throws InterruptedException {
+        ParkingEventRing ring = new ParkingEventRing(1 << 12, ParkingEventOverflowPolicy.WAIT);
+        ParkingLot parkingLot = new ConcurrentParkingLot(1000);
+        AtomicLong firstHandled = new AtomicLong();
+        AtomicLong secondHandled = new AtomicLong();
+        ParkingEventProcessor firstProcessor = ring.addHandler((event, sequence, endOfBatch) -> firstHandled.incrementAndGet());
+        ParkingEventProcessor secondProcessor = ring.addHandler((event, sequence, endOfBatch) -> secondHandled.incrementAndGet());
+        ring.publishFrom(parkingLot);
+        ExecutorService consumers = Executors.newFixedThreadPool(2);
+        consumers.execute(firstProcessor);
+        consumers.execute(secondProcessor);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+
+        for (int producer = 0; producer < 4; producer++) {
+            producers.execute(() -> {
+                for (int count = 0; count < 250; count++) {
+                    parkingLot.returnCar(parkingLot.parkCar(new Car()));
+                }
+            });
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(10, TimeUnit.SECONDS));
+        firstProcessor.halt();
+        secondProcessor.halt();
+        consumers.shutdown();
+        assertTrue(consumers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(0, ring.getDroppedEvents());
+        assertEquals(2000, firstHandled.get());
+        assertEquals(2000, secondHandled.get());
+    }
+}
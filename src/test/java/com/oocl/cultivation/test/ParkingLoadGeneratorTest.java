@@ -0,0 +1,66 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingLoadGeneratorTest {
+
+    @Test
+    void should_report_consistent_counts_for_synthetic_traffic() throws InterruptedException {
+        ParkingLoadGenerator generator = new ParkingLoadGenerator(4, 50, 1, 1, 1);
+
+        ParkingLoadReport report = generator.runSynthetic(2, 2000, 300, 50, 7);
+
+        assertTrue(report.getArrivals() > 0);
+        assertEquals(report.getArrivals(), report.getParkedCars() + report.getRejectedCars());
+        assertTrue(report.getFetchedCars() <= report.getParkedCars());
+        assertEquals(report.getArrivals(), report.getParkLatency().getCount());
+        assertEquals(4, report.getParkingLotCount());
+        assertTrue(report.getThroughputPerSecond() > 0);
+        assertTrue(report.format().contains("p99"));
+    }
+
+    @Test
+    void should_reject_cars_when_site_is_too_small_for_traffic() throws InterruptedException {
+        ParkingLoadGenerator generator = new ParkingLoadGenerator(1, 2, 0, 0, 1);
+
+        ParkingLoadReport report = generator.runSynthetic(1, 1000, 200, 1_000_000, 3);
+
+        assertEquals(2, report.getParkedCars());
+        assertEquals(report.getArrivals() - 2, report.getRejectedCars());
+        assertTrue(report.getRejectionRate() > 0);
+        assertEquals(1.0, report.getPeakUtilization(0), 1e-9);
+    }
+
+    @Test
+    void should_replay_recorded_trace() throws IOException, InterruptedException {
+        List<ParkingTraceEvent> trace = ParkingLoadGenerator.readTrace(new StringReader(
+                "# millis event car\n"
+                        + "0 arrive 1\n"
+                        + "50 arrive 2\n"
+                        + "100 arrive 3\n"
+                        + "200 depart 1\n"
+                        + "250 arrive 4\n"
+                        + "300 depart 2\n"));
+        ParkingLoadGenerator generator = new ParkingLoadGenerator(1, 2, 1, 0, 0);
+
+        ParkingLoadReport report = generator.replay(2, trace);
+
+        assertEquals(6, trace.size());
+        assertEquals(4, report.getArrivals());
+        assertEquals(1, report.getRejectedCars());
+        assertEquals(3, report.getParkedCars());
+        assertEquals(2, report.getFetchedCars());
+    }
+
+    @Test
+    void should_fail_to_read_malformed_trace_line() {
+        assertThrows(IOException.class, () -> ParkingLoadGenerator.readTrace(new StringReader("0 leave 1\n")));
+    }
+}
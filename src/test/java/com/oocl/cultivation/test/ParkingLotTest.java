@@ -1,7 +1,10 @@
 package com.oocl.cultivation.test;
 
 import com.oocl.cultivation.Car;
+import com.oocl.cultivation.ParkingBoy;
 import com.oocl.cultivation.ParkingLot;
+import com.oocl.cultivation.ParkingLotListener;
+import com.oocl.cultivation.ParkingTicket;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,4 +50,77 @@ class ParkingLotTest {
 
         assertEquals(0, parkingLot.getAvailablePositionRate());
     }
+
+    @Test
+    void should_not_park_car_when_parking_lot_is_full(){
+        ParkingLot parkingLot = new ParkingLot(1);
+
+        parkingLot.parkCar(new Car());
+
+        assertNull(parkingLot.parkCar(new Car()));
+        assertEquals(0, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_return_car_for_used_ticket_once_the_position_is_reused(){
+        ParkingLot parkingLot = new ParkingLot(1);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+
+        ParkingTicket usedTicket = parkingLot.parkCar(firstCar);
+        parkingLot.returnCar(usedTicket);
+        ParkingTicket ticket = parkingLot.parkCar(secondCar);
+
+        assertNull(parkingLot.returnCar(usedTicket));
+        assertSame(secondCar, parkingLot.returnCar(ticket));
+    }
+
+    @Test
+    void should_not_return_car_for_ticket_issued_by_another_parking_lot(){
+        ParkingLot firstParkingLot = new ParkingLot();
+        ParkingLot secondParkingLot = new ParkingLot();
+
+        ParkingTicket ticket = firstParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+
+        assertNull(secondParkingLot.returnCar(ticket));
+        assertNull(secondParkingLot.returnCar(new ParkingTicket()));
+        assertEquals(9, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_give_position_back_when_a_listener_fails_to_record_parked_car(){
+        ParkingLot parkingLot = new ParkingLot(1);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        boolean[] failed = new boolean[1];
+        parkingLot.addListener(new ParkingLotListener() {
+            @Override
+            public void onAvailableParkingPositionChanged(ParkingLot changedParkingLot) {
+            }
+
+            @Override
+            public void onCarParked(ParkingLot changedParkingLot, ParkingTicket ticket) {
+                if (!failed[0]) {
+                    failed[0] = true;
+                    throw new IllegalStateException("log is full");
+                }
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> parkingBoy.park(new Car()));
+
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+        assertNotNull(parkingBoy.park(new Car()));
+        assertNull(parkingBoy.park(new Car()));
+    }
+
+    @Test
+    void should_not_allocate_slot_state_before_first_car_is_parked(){
+        ParkingLot parkingLot = new ParkingLot(Integer.MAX_VALUE);
+        ParkingLot emptyParkingLot = new ParkingLot(-1);
+
+        assertEquals(Integer.MAX_VALUE, parkingLot.getAvailableParkingPosition());
+        assertEquals(-1, emptyParkingLot.getAvailableParkingPosition());
+        assertNull(emptyParkingLot.parkCar(new Car()));
+    }
 }
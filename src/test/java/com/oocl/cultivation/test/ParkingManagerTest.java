@@ -3,6 +3,13 @@ package com.oocl.cultivation.test;
 import com.oocl.cultivation.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -243,6 +250,22 @@ public class ParkingManagerTest {
         assertEquals("The parking lot is full.", parkingManager.getLastErrorMessage());
     }
 
+    @Test
+    void should_park_car_to_the_first_parking_lot_again_once_it_has_an_empty_position() {
+        ParkingLot firstParkingLot = new ParkingLot(1);
+        ParkingLot secondParkingLot = new ParkingLot();
+        ParkingManager parkingManager = new ParkingManager(firstParkingLot, secondParkingLot);
+        ParkingTicket firstTicket = parkingManager.park(new Car());
+        parkingManager.park(new Car());
+        assertEquals(9, secondParkingLot.getAvailableParkingPosition());
+
+        parkingManager.fetch(firstTicket);
+        parkingManager.park(new Car());
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(9, secondParkingLot.getAvailableParkingPosition());
+    }
+
     @Test
     void should_let_standard_parking_boy_to_park_a_car_to_a_parking_lot_and_get_it_back() {
         ParkingLot parkingLot = new ParkingLot();
@@ -1098,4 +1121,267 @@ public class ParkingManagerTest {
 
         assertEquals("Unrecognized parking ticket.", parkingManager.getLastErrorMessageFromParkingBoy());
     }
+
+    @Test
+    void should_return_result_with_error_when_telling_a_parking_boy_who_not_under_management_to_park_or_fetch() {
+        ParkingBoy unknownParkingBoy = new ParkingBoy(new ParkingLot());
+        ParkingManager parkingManager = new ParkingManager();
+
+        ParkingResult<ParkingTicket> parkingResult = parkingManager.tellParkingBoyToTryPark(unknownParkingBoy, new Car());
+        ParkingResult<Car> fetchingResult = parkingManager.tellParkingBoyToTryFetch(unknownParkingBoy, new ParkingTicket());
+
+        assertEquals(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT, parkingResult.getError());
+        assertEquals("That parking boy is not under management.", fetchingResult.getErrorMessage());
+        assertNull(parkingManager.getLastErrorMessage());
+    }
+
+    @Test
+    void should_return_result_from_parking_boy_when_telling_a_parking_boy_to_park_and_fetch() {
+        ParkingBoy parkingBoy = new ParkingBoy(new ParkingLot(1));
+        ParkingManager parkingManager = new ParkingManager();
+        parkingManager.manage(parkingBoy);
+        Car car = new Car();
+
+        ParkingTicket ticket = parkingManager.tellParkingBoyToTryPark(parkingBoy, car).getValue();
+        ParkingResult<ParkingTicket> fullResult = parkingManager.tellParkingBoyToTryPark(parkingBoy, new Car());
+
+        assertEquals("The parking lot is full.", fullResult.getErrorMessage());
+        assertSame(car, parkingManager.tellParkingBoyToTryFetch(parkingBoy, ticket).getValue());
+        assertNull(parkingManager.getLastErrorMessageFromParkingBoy());
+    }
+
+    @Test
+    void should_fetch_a_batch_of_cars_from_own_parking_lots() {
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingManager parkingManager = new ParkingManager(parkingLot);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+        ParkingTicket firstTicket = parkingManager.park(firstCar);
+        ParkingTicket secondTicket = parkingManager.park(secondCar);
+
+        List<ParkingResult<Car>> results = parkingManager.fetchAll(Arrays.asList(firstTicket, secondTicket));
+
+        assertSame(firstCar, results.get(0).getValue());
+        assertSame(secondCar, results.get(1).getValue());
+        assertEquals(10, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_let_parking_boy_fetch_a_batch_of_cars_only_when_he_is_under_management() {
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        ParkingBoy unknownParkingBoy = new ParkingBoy(parkingLot);
+        ParkingManager parkingManager = new ParkingManager();
+        parkingManager.manage(parkingBoy);
+        Car car = new Car();
+        ParkingTicket ticket = parkingManager.tellParkingBoyToPark(parkingBoy, car);
+
+        List<ParkingResult<Car>> rejectedResults = parkingManager.tellParkingBoyToFetchAll(unknownParkingBoy, Arrays.asList(ticket, null));
+        List<ParkingResult<Car>> results = parkingManager.tellParkingBoyToFetchAll(parkingBoy, Arrays.asList(ticket, null));
+
+        assertEquals("That parking boy is not under management.", rejectedResults.get(0).getErrorMessage());
+        assertEquals("That parking boy is not under management.", rejectedResults.get(1).getErrorMessage());
+        assertSame(car, results.get(0).getValue());
+        assertEquals("Please provide your parking ticket.", results.get(1).getErrorMessage());
+    }
+
+    @Test
+    void should_let_multiple_parking_boys_park_and_fetch_cars_asynchronously() throws Exception {
+        ParkingLot firstParkingLot = new ParkingLot(500);
+        ParkingLot secondParkingLot = new ParkingLot(500);
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot);
+        ParkingBoy smartParkingBoy = new SmartParkingBoy(secondParkingLot);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        ParkingManager parkingManager = new ParkingManager(executor);
+        parkingManager.manage(parkingBoy);
+        parkingManager.manage(smartParkingBoy);
+        List<CompletableFuture<ParkingResult<ParkingTicket>>> parkingResults = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            parkingResults.add(parkingManager.tellParkingBoyToParkAsync(parkingBoy, new Car()));
+            parkingResults.add(parkingManager.tellParkingBoyToParkAsync(smartParkingBoy, new Car()));
+        }
+        for (CompletableFuture<ParkingResult<ParkingTicket>> parkingResult : parkingResults) {
+            assertTrue(parkingResult.get().isSuccessful());
+        }
+        assertEquals(100, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(100, secondParkingLot.getAvailableParkingPosition());
+
+        ParkingTicket ticket = parkingResults.get(0).get().getValue();
+        ParkingResult<Car> fetchingResult = parkingManager.tellParkingBoyToFetchAsync(parkingBoy, ticket).get();
+        executor.shutdown();
+
+        assertTrue(fetchingResult.isSuccessful());
+        assertEquals(101, firstParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_let_parking_boys_sharing_a_parking_lot_park_and_fetch_cars_asynchronously() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int run = 0; run < 20; run++) {
+            ParkingLot parkingLot = new ParkingLot(1000);
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+            ParkingBoy smartParkingBoy = new SmartParkingBoy(parkingLot);
+            ParkingManager parkingManager = new ParkingManager(executor, parkingLot);
+            parkingManager.manage(parkingBoy);
+            parkingManager.manage(smartParkingBoy);
+            List<CompletableFuture<ParkingResult<ParkingTicket>>> parkingResults = new ArrayList<>();
+
+            for (int i = 0; i < 500; i++) {
+                parkingResults.add(parkingManager.tellParkingBoyToParkAsync(parkingBoy, new Car()));
+                parkingResults.add(parkingManager.tellParkingBoyToParkAsync(smartParkingBoy, new Car()));
+            }
+            List<CompletableFuture<ParkingResult<Car>>> fetchingResults = new ArrayList<>();
+            for (int i = 0; i < parkingResults.size(); i += 2) {
+                assertTrue(parkingResults.get(i).get().isSuccessful());
+                assertTrue(parkingResults.get(i + 1).get().isSuccessful());
+                fetchingResults.add(parkingManager.tellParkingBoyToFetchAsync(parkingBoy, parkingResults.get(i).get().getValue()));
+            }
+            for (CompletableFuture<ParkingResult<Car>> fetchingResult : fetchingResults) {
+                assertTrue(fetchingResult.get().isSuccessful());
+            }
+
+            assertEquals(500, parkingLot.getAvailableParkingPosition());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void should_return_failure_asynchronously_when_telling_a_parking_boy_who_not_under_management() throws Exception {
+        ParkingBoy unknownParkingBoy = new ParkingBoy(new ParkingLot());
+        ParkingManager parkingManager = new ParkingManager();
+
+        ParkingResult<ParkingTicket> parkingResult = parkingManager.tellParkingBoyToParkAsync(unknownParkingBoy, new Car()).get();
+        ParkingResult<Car> fetchingResult = parkingManager.tellParkingBoyToFetchAsync(unknownParkingBoy, new ParkingTicket()).get();
+
+        assertEquals(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT, parkingResult.getError());
+        assertEquals(ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT, fetchingResult.getError());
+    }
+
+    @Test
+    void should_let_parking_boys_park_cars_on_virtual_threads() throws Exception {
+        ParkingLot firstParkingLot = new ParkingLot(10000);
+        ParkingLot secondParkingLot = new ParkingLot(10000);
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot);
+        ParkingBoy superSmartParkingBoy = new SuperSmartParkingBoy(secondParkingLot);
+        ParkingManager parkingManager = new ParkingManager(ParkingDispatcher.VIRTUAL_THREAD);
+        parkingManager.manage(parkingBoy);
+        parkingManager.manage(superSmartParkingBoy);
+        List<CompletableFuture<ParkingResult<ParkingTicket>>> parkingResults = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            parkingResults.add(parkingManager.tellParkingBoyToParkAsync(parkingBoy, new Car()));
+            parkingResults.add(parkingManager.tellParkingBoyToParkAsync(superSmartParkingBoy, new Car()));
+        }
+        CompletableFuture.allOf(parkingResults.toArray(new CompletableFuture[0])).get();
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(0, secondParkingLot.getAvailableParkingPosition());
+        assertTrue(parkingManager.tellParkingBoyToFetchAsync(parkingBoy, parkingResults.get(0).get().getValue()).get().isSuccessful());
+    }
+
+    @Test
+    void should_dispatch_car_to_parking_boy_who_has_most_available_parking_positions() {
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(2);
+        ParkingLot thirdParkingLot = new ParkingLot(3);
+        ParkingBoy parkingBoy = new ParkingBoy(firstParkingLot);
+        ParkingBoy smartParkingBoy = new SmartParkingBoy(secondParkingLot, thirdParkingLot);
+        ParkingManager parkingManager = new ParkingManager();
+        parkingManager.manage(parkingBoy);
+        parkingManager.manage(smartParkingBoy);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(parkingManager.dispatchPark(new Car()).isSuccessful());
+        }
+        assertEquals(2, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+        assertEquals(1, thirdParkingLot.getAvailableParkingPosition());
+
+        ParkingTicket ticket = parkingManager.dispatchPark(new Car()).getValue();
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertNull(parkingManager.tellParkingBoyToFetch(smartParkingBoy, ticket));
+        assertNotNull(parkingManager.tellParkingBoyToFetch(parkingBoy, ticket));
+    }
+
+    @Test
+    void should_dispatch_car_to_another_parking_boy_once_parking_lots_of_one_parking_boy_are_full() {
+        ParkingLot firstParkingLot = new ParkingLot(1);
+        ParkingLot secondParkingLot = new ParkingLot(1);
+        ParkingBoy firstParkingBoy = new ParkingBoy(firstParkingLot);
+        ParkingBoy secondParkingBoy = new ParkingBoy(secondParkingLot);
+        ParkingManager parkingManager = new ParkingManager();
+        parkingManager.manage(firstParkingBoy);
+        parkingManager.manage(secondParkingBoy);
+
+        parkingManager.tellParkingBoyToPark(firstParkingBoy, new Car());
+        ParkingResult<ParkingTicket> result = parkingManager.dispatchPark(new Car());
+
+        assertTrue(result.isSuccessful());
+        assertEquals(0, secondParkingLot.getAvailableParkingPosition());
+        assertEquals("The parking lot is full.", parkingManager.dispatchPark(new Car()).getErrorMessage());
+    }
+
+    @Test
+    void should_not_let_parking_boy_park_or_fetch_car_once_he_is_dismissed() {
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        ParkingManager parkingManager = new ParkingManager();
+        parkingManager.manage(parkingBoy);
+        ParkingTicket ticket = parkingManager.tellParkingBoyToPark(parkingBoy, new Car());
+
+        parkingManager.dismiss(parkingBoy);
+
+        assertNull(parkingManager.tellParkingBoyToFetch(parkingBoy, ticket));
+        assertEquals("That parking boy is not under management.", parkingManager.getLastErrorMessage());
+        assertEquals(ParkingError.PARKING_LOT_FULL, parkingManager.dispatchPark(new Car()).getError());
+        assertEquals(9, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_let_parking_boy_park_car_again_once_he_is_managed_after_dismissed() {
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        ParkingManager parkingManager = new ParkingManager();
+        parkingManager.manage(parkingBoy);
+        parkingManager.dismiss(parkingBoy);
+
+        parkingManager.manage(parkingBoy);
+
+        assertTrue(parkingManager.dispatchPark(new Car()).isSuccessful());
+        assertNotNull(parkingManager.tellParkingBoyToPark(parkingBoy, new Car()));
+        assertEquals(8, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_fetch_car_parked_by_any_managed_parking_boy_or_by_manager_without_naming_the_parking_boy() {
+        ParkingBoy parkingBoy = new ParkingBoy(new ParkingLot());
+        ParkingBoy smartParkingBoy = new SmartParkingBoy(new ParkingLot());
+        ParkingManager parkingManager = new ParkingManager(new ParkingLot());
+        parkingManager.manage(parkingBoy);
+        parkingManager.manage(smartParkingBoy);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+        Car thirdCar = new Car();
+
+        ParkingTicket firstTicket = parkingManager.tellParkingBoyToPark(parkingBoy, firstCar);
+        ParkingTicket secondTicket = parkingManager.tellParkingBoyToPark(smartParkingBoy, secondCar);
+        ParkingTicket thirdTicket = parkingManager.park(thirdCar);
+
+        assertSame(secondCar, parkingManager.fetchAnywhere(secondTicket).getValue());
+        assertSame(thirdCar, parkingManager.fetchAnywhere(thirdTicket).getValue());
+        assertSame(firstCar, parkingManager.fetchAnywhere(firstTicket).getValue());
+        assertEquals("Unrecognized parking ticket.", parkingManager.fetchAnywhere(firstTicket).getErrorMessage());
+    }
+
+    @Test
+    void should_not_fetch_car_anywhere_by_ticket_of_parking_boy_who_not_under_management() {
+        ParkingBoy unknownParkingBoy = new ParkingBoy(new ParkingLot());
+        ParkingManager parkingManager = new ParkingManager(new ParkingLot());
+        ParkingTicket ticket = unknownParkingBoy.park(new Car());
+
+        assertEquals("Unrecognized parking ticket.", parkingManager.fetchAnywhere(ticket).getErrorMessage());
+        assertEquals("Unrecognized parking ticket.", parkingManager.fetchAnywhere(new ParkingTicket()).getErrorMessage());
+        assertEquals("Please provide your parking ticket.", parkingManager.fetchAnywhere(null).getErrorMessage());
+    }
 }
@@ -0,0 +1,137 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingMetricsTest {
+
+    @Test
+    void should_count_parks_fetches_and_errors_of_parking_boy(){
+        ParkingMetrics metrics = new ParkingMetrics();
+        ParkingBoy parkingBoy = new ParkingBoy(new ParkingLot(1));
+        parkingBoy.setMetrics(metrics);
+
+        ParkingTicket ticket = parkingBoy.park(new Car());
+        parkingBoy.park(new Car());
+        parkingBoy.fetch(ticket);
+        parkingBoy.fetch(ticket);
+        parkingBoy.fetch(null);
+        ParkingMetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(1, snapshot.getSuccessCount(ParkingOperation.PARK));
+        assertEquals(1, snapshot.getErrorCount(ParkingOperation.PARK, ParkingError.PARKING_LOT_FULL));
+        assertEquals(1, snapshot.getSuccessCount(ParkingOperation.FETCH));
+        assertEquals(1, snapshot.getErrorCount(ParkingOperation.FETCH, ParkingError.UNRECOGNIZED_PARKING_TICKET));
+        assertEquals(1, snapshot.getErrorCount(ParkingOperation.FETCH, ParkingError.TICKET_NOT_PROVIDED));
+        assertEquals(2, snapshot.getLatency(ParkingOperation.PARK).getCount());
+        assertEquals(3, snapshot.getLatency(ParkingOperation.FETCH).getCount());
+    }
+
+    @Test
+    void should_record_latency_of_telling_parking_boy_to_park(){
+        ParkingMetrics metrics = new ParkingMetrics();
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingManager parkingManager = new ParkingManager(parkingLot);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        parkingManager.setMetrics(metrics);
+        parkingBoy.setMetrics(metrics);
+
+        parkingManager.tellParkingBoyToPark(parkingBoy, new Car());
+        parkingManager.manage(parkingBoy);
+        parkingManager.tellParkingBoyToPark(parkingBoy, new Car());
+        ParkingMetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(1, snapshot.getSuccessCount(ParkingOperation.TELL_PARKING_BOY_TO_PARK));
+        assertEquals(1, snapshot.getErrorCount(ParkingOperation.TELL_PARKING_BOY_TO_PARK, ParkingError.PARKING_BOY_NOT_UNDER_MANAGEMENT));
+        assertEquals(2, snapshot.getLatency(ParkingOperation.TELL_PARKING_BOY_TO_PARK).getCount());
+        assertEquals(1, snapshot.getSuccessCount(ParkingOperation.PARK));
+        assertTrue(snapshot.getLatency(ParkingOperation.TELL_PARKING_BOY_TO_PARK).getMaxNanos()
+                >= snapshot.getLatency(ParkingOperation.TELL_PARKING_BOY_TO_PARK).getValueAtPercentileNanos(50));
+    }
+
+    @Test
+    void should_count_batch_results_without_recording_latency(){
+        ParkingMetrics metrics = new ParkingMetrics();
+        SmartParkingBoy parkingBoy = new SmartParkingBoy(new ParkingLot(2));
+        parkingBoy.setMetrics(metrics);
+
+        parkingBoy.fetchAll(Arrays.asList(parkingBoy.parkAll(new Car(), new Car(), new Car()).get(0).getValue(), null));
+        ParkingMetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.getSuccessCount(ParkingOperation.PARK));
+        assertEquals(1, snapshot.getErrorCount(ParkingOperation.PARK, ParkingError.PARKING_LOT_FULL));
+        assertEquals(1, snapshot.getSuccessCount(ParkingOperation.FETCH));
+        assertEquals(1, snapshot.getErrorCount(ParkingOperation.FETCH, ParkingError.TICKET_NOT_PROVIDED));
+        assertEquals(0, snapshot.getLatency(ParkingOperation.PARK).getCount());
+    }
+
+    @Test
+    void should_report_occupancy_of_each_parking_lot_once(){
+        ParkingMetrics metrics = new ParkingMetrics();
+        ParkingLot firstParkingLot = new ParkingLot(4);
+        ParkingLot secondParkingLot = new SlotArrayParkingLot(2);
+        new SuperSmartParkingBoy(firstParkingLot, secondParkingLot).setMetrics(metrics);
+        new ParkingBoy(secondParkingLot).setMetrics(metrics);
+
+        firstParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+        ParkingMetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.getParkingLotCount());
+        assertEquals(1, snapshot.getOccupiedPositions(0));
+        assertEquals(0.25, snapshot.getOccupancyRate(0));
+        assertEquals(2, snapshot.getCapacity(1));
+        assertEquals(0.5, snapshot.getOccupancyRate(1));
+    }
+
+    @Test
+    void should_report_percentiles_within_histogram_precision(){
+        ParkingMetrics metrics = new ParkingMetrics();
+        ParkingBoy parkingBoy = new ParkingBoy(new ParkingLot(1000));
+        parkingBoy.setMetrics(metrics);
+
+        for (int count = 0; count < 1000; count++) {
+            parkingBoy.park(new Car());
+        }
+        LatencySnapshot latency = metrics.snapshot().getLatency(ParkingOperation.PARK);
+
+        assertEquals(1000, latency.getCount());
+        assertTrue(latency.getValueAtPercentileNanos(50) <= latency.getValueAtPercentileNanos(99));
+        assertTrue(latency.getValueAtPercentileNanos(99) <= latency.getMaxNanos());
+        assertEquals(latency.getMaxNanos(), latency.getValueAtPercentileNanos(100));
+    }
+
+    @Test
+    void should_merge_latencies_recorded_from_many_threads() throws InterruptedException {
+        ParkingMetrics metrics = new ParkingMetrics();
+        ParkingBoy parkingBoy = new ParkingBoy(new ConcurrentParkingLot(100_000));
+        parkingBoy.setMetrics(metrics);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            threads.add(new Thread(() -> {
+                for (int count = 0; count < 1000; count++) {
+                    parkingBoy.tryFetch(parkingBoy.tryPark(new Car()).getValue());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ParkingMetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(8000, snapshot.getLatency(ParkingOperation.PARK).getCount());
+        assertEquals(8000, snapshot.getLatency(ParkingOperation.FETCH).getCount());
+        assertEquals(8000, snapshot.getSuccessCount(ParkingOperation.FETCH));
+        assertTrue(snapshot.getLatency(ParkingOperation.PARK).getMaxNanos() > 0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationTest {
+
+    @Test
+    void should_count_held_positions_as_unavailable(){
+        ParkingLot parkingLot = new SlotArrayParkingLot(2);
+
+        Reservation reservation = parkingLot.reserve(60_000);
+
+        assertTrue(reservation.isHeld());
+        assertEquals(1, parkingLot.getReservedPositions());
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+        assertEquals(0.5, parkingLot.getAvailablePositionRate());
+        assertNotNull(parkingLot.parkCar(new Car()));
+        assertNull(parkingLot.parkCar(new Car()));
+        assertNull(parkingLot.reserve(60_000));
+    }
+
+    @Test
+    void should_park_car_into_reserved_position_once(){
+        ParkingLot parkingLot = new ConcurrentParkingLot(1);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        Car car = new Car();
+
+        Reservation reservation = parkingBoy.tryReserve(60_000).getValue();
+        ParkingResult<ParkingTicket> result = parkingBoy.tryParkReserved(reservation, car);
+
+        assertTrue(result.isSuccessful());
+        assertFalse(reservation.isHeld());
+        assertEquals(0, parkingLot.getReservedPositions());
+        assertEquals(ParkingError.RESERVATION_ALREADY_USED, parkingBoy.tryParkReserved(reservation, new Car()).getError());
+        assertSame(car, parkingBoy.fetch(result.getValue()));
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_park_reserved_car_after_reservation_expires_even_before_it_is_reclaimed() throws InterruptedException {
+        ParkingLot parkingLot = new ParkingLot(1);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+
+        Reservation reservation = parkingBoy.tryReserve(1).getValue();
+        Thread.sleep(10);
+        ParkingResult<ParkingTicket> result = parkingBoy.tryParkReserved(reservation, new Car());
+
+        assertEquals(ParkingError.RESERVATION_EXPIRED, result.getError());
+        assertFalse(reservation.isHeld());
+        assertFalse(reservation.isRedeemed());
+        assertEquals(0, parkingLot.getReservedPositions());
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_park_reserved_car_for_reservation_of_other_parking_boy(){
+        ParkingLot parkingLot = new ParkingLot();
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        SmartParkingBoy otherParkingBoy = new SmartParkingBoy(parkingLot);
+
+        Reservation reservation = parkingBoy.tryReserve(60_000).getValue();
+
+        assertEquals(ParkingError.UNRECOGNIZED_PARKING_TICKET, otherParkingBoy.tryParkReserved(reservation, new Car()).getError());
+        assertEquals(ParkingError.TICKET_NOT_PROVIDED, otherParkingBoy.tryParkReserved(null, new Car()).getError());
+        assertTrue(reservation.isHeld());
+    }
+
+    @Test
+    void should_reserve_in_parking_lot_chosen_by_parking_strategy(){
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(4);
+        SuperSmartParkingBoy parkingBoy = new SuperSmartParkingBoy(firstParkingLot, secondParkingLot);
+
+        Reservation firstReservation = parkingBoy.tryReserve(60_000).getValue();
+        Reservation secondReservation = parkingBoy.tryReserve(60_000).getValue();
+        parkingBoy.park(new Car());
+
+        assertSame(firstParkingLot, firstReservation.getParkingLot());
+        assertSame(secondParkingLot, secondReservation.getParkingLot());
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(2, secondParkingLot.getAvailableParkingPosition());
+        assertEquals(ParkingError.PARKING_LOT_FULL, new ParkingBoy(new ParkingLot(0)).tryReserve(60_000).getError());
+    }
+
+    @Test
+    void should_reclaim_expired_reservations_in_bulk(){
+        long now = System.currentTimeMillis();
+        ReservationReaper reaper = new ReservationReaper(1000, now);
+        ParkingLot parkingLot = new ParkingLot(3);
+        reaper.watch(parkingLot);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+
+        Reservation redeemedReservation = parkingBoy.tryReserve(60_000).getValue();
+        Reservation firstExpiredReservation = parkingBoy.tryReserve(60_000).getValue();
+        Reservation secondExpiredReservation = parkingBoy.tryReserve(90_000).getValue();
+        parkingBoy.tryParkReserved(redeemedReservation, new Car());
+
+        assertEquals(2, reaper.size());
+        assertEquals(0, reaper.reclaim(now + 30_000));
+        assertEquals(2, reaper.reclaim(secondExpiredReservation.getExpiresAtMillis() + 1000));
+        assertFalse(firstExpiredReservation.isHeld());
+        assertEquals(ParkingError.RESERVATION_EXPIRED, parkingBoy.tryParkReserved(secondExpiredReservation, new Car()).getError());
+        assertEquals(2, parkingLot.getAvailableParkingPosition());
+        assertEquals(0, reaper.size());
+    }
+
+    @Test
+    void should_not_reclaim_cancelled_reservation(){
+        ReservationReaper reaper = new ReservationReaper(10, System.currentTimeMillis());
+        ParkingLot parkingLot = new ParkingLot(1);
+        reaper.watch(parkingLot);
+
+        Reservation reservation = parkingLot.reserve(60_000);
+
+        assertTrue(parkingLot.cancelReservation(reservation));
+        assertFalse(parkingLot.cancelReservation(reservation));
+        assertEquals(0, reaper.size());
+        assertEquals(0, reaper.reclaim(reservation.getExpiresAtMillis() + 10));
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_reclaim_expired_reservations_on_scheduler_thread_while_parking() throws InterruptedException {
+        ReservationReaper reaper = new ReservationReaper(1, System.currentTimeMillis());
+        ParkingLot parkingLot = new ParkingLot(256);
+        reaper.watch(parkingLot);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        reaper.scheduleReclaim(scheduler, 1, TimeUnit.MILLISECONDS);
+
+        for (int count = 0; count < 500_000; count++) {
+            if (count % 32 == 0) {
+                parkingBoy.tryReserve(1);
+            }
+            Car car = new Car();
+            ParkingTicket ticket = parkingBoy.park(car);
+            if (ticket != null) {
+                assertSame(car, parkingBoy.fetch(ticket));
+            }
+        }
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+        reaper.reclaim(System.currentTimeMillis() + 1000);
+
+        assertEquals(0, reaper.size());
+        assertEquals(0, parkingLot.getReservedPositions());
+        assertEquals(256, parkingLot.getAvailableParkingPosition());
+    }
+}
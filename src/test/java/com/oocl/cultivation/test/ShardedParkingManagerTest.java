@@ -0,0 +1,121 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedParkingManagerTest {
+
+    @Test
+    void should_route_same_key_to_same_shard_and_spread_keys_over_all_shards(){
+        ShardedParkingManager parkingManager = new ShardedParkingManager(4, lots(8, 10));
+        int[] keysPerShard = new int[4];
+
+        for (int key = 0; key < 4000; key++) {
+            assertEquals(parkingManager.shardOf(key), parkingManager.shardOf(key));
+            keysPerShard[parkingManager.shardOf(key)]++;
+        }
+
+        for (int keys : keysPerShard) {
+            assertTrue(keys > 500);
+        }
+    }
+
+    @Test
+    void should_park_into_preferred_shard_until_it_is_full_then_spill_over(){
+        ParkingLot[] parkingLots = lots(2, 1);
+        ShardedParkingManager parkingManager = new ShardedParkingManager(2, parkingLots);
+        String customer = "fleet-customer";
+        ParkingLot preferredParkingLot = parkingLots[parkingManager.shardOf(customer)];
+
+        ParkingResult<ParkingTicket> first = parkingManager.park(customer, new Car());
+        ParkingResult<ParkingTicket> second = parkingManager.park(customer, new Car());
+
+        assertTrue(first.isSuccessful());
+        assertTrue(second.isSuccessful());
+        assertEquals(0, preferredParkingLot.getAvailableParkingPosition());
+        assertEquals(0, parkingManager.getAvailableParkingPosition());
+        assertEquals(ParkingError.PARKING_LOT_FULL, parkingManager.park(customer, new Car()).getError());
+    }
+
+    @Test
+    void should_fetch_car_from_shard_of_parking_boy_that_parked_it(){
+        ParkingLot[] parkingLots = lots(4, 2);
+        ShardedParkingManager parkingManager = new ShardedParkingManager(2, parkingLots);
+        SmartParkingBoy parkingBoy = new SmartParkingBoy(parkingLots[1], parkingLots[3]);
+        parkingManager.manage(parkingBoy);
+        Car car = new Car();
+        Integer customer = customerOfShard(parkingManager, 1);
+
+        ParkingTicket ticket = parkingManager.park(customer, car).getValue();
+
+        assertTrue(ticket.getParkedAtMillis() > 0);
+        assertSame(car, parkingManager.fetch(ticket).getValue());
+        assertEquals(ParkingError.UNRECOGNIZED_PARKING_TICKET, parkingManager.fetch(ticket).getError());
+        assertEquals(ParkingError.UNRECOGNIZED_PARKING_TICKET, parkingManager.fetch(new ParkingTicket()).getError());
+        assertEquals(ParkingError.TICKET_NOT_PROVIDED, parkingManager.fetch(null).getError());
+    }
+
+    @Test
+    void should_not_manage_parking_boy_working_across_shards(){
+        ParkingLot[] parkingLots = lots(2, 2);
+        ShardedParkingManager parkingManager = new ShardedParkingManager(2, parkingLots);
+
+        assertThrows(IllegalArgumentException.class, () -> parkingManager.manage(new ParkingBoy(parkingLots)));
+        assertThrows(IllegalArgumentException.class, () -> parkingManager.manage(new ParkingBoy(new ParkingLot())));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedParkingManager(3, parkingLots));
+    }
+
+    @Test
+    void should_park_and_fetch_concurrently_across_shards_without_losing_cars() throws InterruptedException {
+        ShardedParkingManager parkingManager = new ShardedParkingManager(4, lots(8, 125));
+        ConcurrentLinkedQueue<ParkingTicket> tickets = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int thread = 0; thread < 8; thread++) {
+            int customerBase = thread * 1000;
+            executor.execute(() -> {
+                for (int customer = customerBase; customer < customerBase + 150; customer++) {
+                    ParkingResult<ParkingTicket> result = parkingManager.park(customer, new Car());
+                    if (result.isSuccessful()) {
+                        tickets.add(result.getValue());
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, tickets.size());
+        assertEquals(0, parkingManager.getAvailableParkingPosition());
+        List<ParkingTicket> parkedTickets = new ArrayList<>(tickets);
+        for (ParkingTicket ticket : parkedTickets) {
+            assertTrue(parkingManager.fetch(ticket).isSuccessful());
+        }
+        assertEquals(1000, parkingManager.getAvailableParkingPosition());
+    }
+
+    private static ParkingLot[] lots(int count, int capacity) {
+        ParkingLot[] parkingLots = new ParkingLot[count];
+        for (int index = 0; index < count; index++) {
+            parkingLots[index] = new ParkingLot(capacity);
+        }
+        return parkingLots;
+    }
+
+    private static Integer customerOfShard(ShardedParkingManager parkingManager, int shard) {
+        for (int customer = 0; ; customer++) {
+            if (parkingManager.shardOf(customer) == shard) {
+                return customer;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotArrayParkingLotTest {
+
+    @Test
+    void should_return_correct_number_of_available_parking_position_after_parking_car(){
+        ParkingLot parkingLot = new SlotArrayParkingLot();
+
+        parkingLot.parkCar(new Car());
+
+        assertEquals(9, parkingLot.getAvailableParkingPosition());
+        assertEquals(0.9, parkingLot.getAvailablePositionRate());
+    }
+
+    @Test
+    void should_not_park_car_when_parking_lot_is_full(){
+        ParkingLot parkingLot = new SlotArrayParkingLot(1);
+
+        parkingLot.parkCar(new Car());
+
+        assertNull(parkingLot.parkCar(new Car()));
+        assertEquals(0, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_return_car_for_used_ticket_once_the_position_is_reused(){
+        ParkingLot parkingLot = new SlotArrayParkingLot(1);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+
+        ParkingTicket usedTicket = parkingLot.parkCar(firstCar);
+        assertSame(firstCar, parkingLot.returnCar(usedTicket));
+        ParkingTicket ticket = parkingLot.parkCar(secondCar);
+
+        assertNull(parkingLot.returnCar(usedTicket));
+        assertSame(secondCar, parkingLot.returnCar(ticket));
+        assertEquals(1, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_return_car_for_ticket_issued_by_another_parking_lot(){
+        ParkingLot firstParkingLot = new SlotArrayParkingLot();
+        ParkingLot secondParkingLot = new SlotArrayParkingLot();
+
+        ParkingTicket ticket = firstParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+
+        assertNull(secondParkingLot.returnCar(ticket));
+        assertNull(secondParkingLot.returnCar(new ParkingTicket()));
+        assertNull(secondParkingLot.returnCar(null));
+    }
+
+    @Test
+    void should_let_smart_parking_boy_park_cars_to_slot_array_parking_lots_and_get_them_back(){
+        ParkingLot firstParkingLot = new SlotArrayParkingLot(1);
+        ParkingLot secondParkingLot = new SlotArrayParkingLot(2);
+        SmartParkingBoy smartParkingBoy = new SmartParkingBoy(firstParkingLot, secondParkingLot);
+        Car firstCar = new Car();
+        Car secondCar = new Car();
+
+        ParkingTicket firstTicket = smartParkingBoy.park(firstCar);
+        ParkingTicket secondTicket = smartParkingBoy.park(secondCar);
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+        assertSame(firstCar, smartParkingBoy.fetch(firstTicket));
+        assertSame(secondCar, smartParkingBoy.fetch(secondTicket));
+    }
+}
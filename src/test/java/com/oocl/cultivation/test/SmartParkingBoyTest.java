@@ -3,9 +3,13 @@ package com.oocl.cultivation.test;
 import com.oocl.cultivation.Car;
 import com.oocl.cultivation.SmartParkingBoy;
 import com.oocl.cultivation.ParkingLot;
+import com.oocl.cultivation.ParkingResult;
 import com.oocl.cultivation.ParkingTicket;
 import org.junit.jupiter.api.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -215,4 +219,95 @@ public class SmartParkingBoyTest {
 
         assertEquals("The parking lot is full.", smartParkingBoy.getLastErrorMessage());
     }
+
+    @Test
+    void should_park_car_to_the_first_parking_lot_when_parking_lots_contain_same_empty_positions() {
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(2);
+        SmartParkingBoy smartParkingBoy = new SmartParkingBoy(firstParkingLot, secondParkingLot);
+
+        smartParkingBoy.park(new Car());
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(2, secondParkingLot.getAvailableParkingPosition());
+
+        smartParkingBoy.park(new Car());
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+
+        smartParkingBoy.park(new Car());
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_park_car_to_parking_lot_which_contains_more_empty_position_after_a_car_is_fetched() {
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(2);
+        SmartParkingBoy smartParkingBoy = new SmartParkingBoy(firstParkingLot, secondParkingLot);
+        ParkingTicket firstTicket = smartParkingBoy.park(new Car());
+        smartParkingBoy.park(new Car());
+        smartParkingBoy.park(new Car());
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+
+        smartParkingBoy.fetch(firstTicket);
+        smartParkingBoy.park(new Car());
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_park_car_to_parking_lot_which_contains_more_empty_position_when_parking_lot_is_changed_by_others() {
+        ParkingLot firstParkingLot = new ParkingLot(3);
+        ParkingLot secondParkingLot = new ParkingLot(2);
+        SmartParkingBoy smartParkingBoy = new SmartParkingBoy(firstParkingLot, secondParkingLot);
+
+        firstParkingLot.parkCar(new Car());
+        firstParkingLot.parkCar(new Car());
+        smartParkingBoy.park(new Car());
+
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_park_a_batch_of_cars_to_parking_lots_which_contain_more_empty_positions() {
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(4);
+        SmartParkingBoy smartParkingBoy = new SmartParkingBoy(firstParkingLot, secondParkingLot);
+        Car firstCar = new Car();
+
+        List<ParkingResult<ParkingTicket>> results = smartParkingBoy.parkAll(firstCar, new Car(), new Car(), new Car(), new Car(), new Car(), new Car());
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(0, secondParkingLot.getAvailableParkingPosition());
+        assertEquals("The parking lot is full.", results.get(6).getErrorMessage());
+        assertSame(firstCar, smartParkingBoy.fetch(results.get(0).getValue()));
+        assertEquals(1, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_let_parking_lot_forget_smart_parking_boys_that_are_no_longer_used() throws InterruptedException {
+        ParkingLot parkingLot = new ParkingLot(10);
+        int listenerCount = parkingLot.getListenerCount();
+        WeakReference<SmartParkingBoy> unusedSmartParkingBoy = createSmartParkingBoy(parkingLot);
+        int listenerCountWithUnusedSmartParkingBoy = parkingLot.getListenerCount();
+
+        for (int attempt = 0; attempt < 100 && unusedSmartParkingBoy.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        parkingLot.returnCar(parkingLot.parkCar(new Car()));
+
+        assertNull(unusedSmartParkingBoy.get());
+        assertTrue(listenerCountWithUnusedSmartParkingBoy > listenerCount);
+        assertEquals(listenerCount, parkingLot.getListenerCount());
+    }
+
+    private static WeakReference<SmartParkingBoy> createSmartParkingBoy(ParkingLot parkingLot) {
+        SmartParkingBoy smartParkingBoy = new SmartParkingBoy(parkingLot);
+        smartParkingBoy.fetch(smartParkingBoy.park(new Car()));
+        return new WeakReference<>(smartParkingBoy);
+    }
 }
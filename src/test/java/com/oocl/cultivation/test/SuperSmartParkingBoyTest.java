@@ -3,9 +3,12 @@ package com.oocl.cultivation.test;
 import com.oocl.cultivation.Car;
 import com.oocl.cultivation.SuperSmartParkingBoy;
 import com.oocl.cultivation.ParkingLot;
+import com.oocl.cultivation.ParkingResult;
 import com.oocl.cultivation.ParkingTicket;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -226,4 +229,53 @@ public class SuperSmartParkingBoyTest {
 
         assertEquals("The parking lot is full.", superSmartParkingBoy.getLastErrorMessage());
     }
+
+    @Test
+    void should_park_car_to_the_first_parking_lot_when_parking_lots_have_same_available_position_rate() {
+        ParkingLot firstParkingLot = new ParkingLot(3);
+        ParkingLot secondParkingLot = new ParkingLot(6);
+        SuperSmartParkingBoy superSmartParkingBoy = new SuperSmartParkingBoy(firstParkingLot, secondParkingLot);
+        firstParkingLot.parkCar(new Car());
+        firstParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+        secondParkingLot.parkCar(new Car());
+
+        superSmartParkingBoy.park(new Car());
+
+        assertEquals(0, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(2, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_park_car_to_parking_lot_which_has_larger_available_position_rate_after_a_car_is_fetched() {
+        ParkingLot firstParkingLot = new ParkingLot(2);
+        ParkingLot secondParkingLot = new ParkingLot(4);
+        SuperSmartParkingBoy superSmartParkingBoy = new SuperSmartParkingBoy(firstParkingLot, secondParkingLot);
+        ParkingTicket firstTicket = superSmartParkingBoy.park(new Car());
+        superSmartParkingBoy.park(new Car());
+        superSmartParkingBoy.park(new Car());
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(2, secondParkingLot.getAvailableParkingPosition());
+
+        superSmartParkingBoy.fetch(firstTicket);
+        superSmartParkingBoy.park(new Car());
+
+        assertEquals(1, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(2, secondParkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_park_a_batch_of_cars_to_parking_lots_which_have_larger_available_position_rate() {
+        ParkingLot firstParkingLot = new ParkingLot(5);
+        ParkingLot secondParkingLot = new ParkingLot(10);
+        SuperSmartParkingBoy superSmartParkingBoy = new SuperSmartParkingBoy(firstParkingLot, secondParkingLot);
+
+        List<ParkingResult<ParkingTicket>> results = superSmartParkingBoy.parkAll(new Car(), new Car(), new Car());
+
+        assertEquals(3, results.size());
+        assertEquals(4, firstParkingLot.getAvailableParkingPosition());
+        assertEquals(8, secondParkingLot.getAvailableParkingPosition());
+    }
 }
@@ -0,0 +1,86 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketExpiryWheelTest {
+
+    @Test
+    void should_report_overstaying_tickets_when_wheel_passes_their_maximum_stay(){
+        long now = System.currentTimeMillis();
+        TicketExpiryWheel wheel = new TicketExpiryWheel(1000, 60_000, now);
+        ParkingLot parkingLot = new ParkingLot();
+        wheel.watch(parkingLot);
+        ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+
+        ParkingTicket fetchedTicket = parkingBoy.park(new Car());
+        ParkingTicket overstayingTicket = parkingBoy.park(new Car());
+        parkingBoy.fetch(fetchedTicket);
+
+        assertTrue(overstayingTicket.getParkedAtMillis() >= now);
+        assertEquals(1, wheel.size());
+        assertTrue(wheel.advanceTo(now + 30_000).isEmpty());
+        List<ParkingTicket> expiredTickets = wheel.advanceTo(overstayingTicket.getParkedAtMillis() + 61_000);
+        assertEquals(1, expiredTickets.size());
+        assertSame(overstayingTicket, expiredTickets.get(0));
+        assertEquals(0, wheel.size());
+        assertEquals(9, parkingLot.getAvailableParkingPosition());
+    }
+
+    @Test
+    void should_not_cancel_expiry_with_used_ticket_of_a_reused_position(){
+        TicketExpiryWheel wheel = new TicketExpiryWheel(10, 0, 0);
+        ParkingLot parkingLot = new SlotArrayParkingLot(1);
+        wheel.watch(parkingLot);
+
+        ParkingTicket usedTicket = parkingLot.parkCar(new Car());
+        parkingLot.returnCar(usedTicket);
+        ParkingTicket ticket = parkingLot.parkCar(new Car());
+        wheel.schedule(ticket, 100);
+
+        assertFalse(wheel.cancel(usedTicket));
+        assertFalse(wheel.cancel(new ParkingTicket()));
+        assertTrue(wheel.advanceTo(99).isEmpty());
+        assertSame(ticket, wheel.advanceTo(100).get(0));
+        assertFalse(wheel.cancel(ticket));
+    }
+
+    @Test
+    void should_expire_in_batches_across_every_level_of_the_wheel(){
+        TicketExpiryWheel wheel = new TicketExpiryWheel(1, 0, 0);
+        ParkingLot parkingLot = new ConcurrentParkingLot(6);
+        long[] expiries = {5, 63, 64, 5_000, 300_000, 20_000_000};
+        ParkingTicket[] tickets = new ParkingTicket[expiries.length];
+        for (int index = 0; index < expiries.length; index++) {
+            tickets[index] = parkingLot.parkCar(new Car());
+            wheel.schedule(tickets[index], expiries[index]);
+        }
+
+        assertEquals(2, wheel.advanceTo(63).size());
+        assertTrue(wheel.cancel(tickets[2]));
+        assertTrue(wheel.advanceTo(4_999).isEmpty());
+        assertSame(tickets[3], wheel.advanceTo(5_000).get(0));
+        assertTrue(wheel.advanceTo(299_999).isEmpty());
+        assertSame(tickets[4], wheel.advanceTo(300_000).get(0));
+        assertTrue(wheel.advanceTo(19_999_999).isEmpty());
+        assertSame(tickets[5], wheel.advanceTo(20_000_000).get(0));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void should_report_tickets_scheduled_in_the_past_on_next_tick(){
+        TicketExpiryWheel wheel = new TicketExpiryWheel(1000, 0, 0);
+        ParkingLot parkingLot = new ParkingLot();
+        wheel.advanceTo(10_000);
+
+        ParkingTicket ticket = parkingLot.parkCar(new Car());
+        wheel.schedule(ticket, 0);
+
+        assertTrue(wheel.advanceTo(10_999).isEmpty());
+        assertSame(ticket, wheel.advanceTo(11_000).get(0));
+    }
+}
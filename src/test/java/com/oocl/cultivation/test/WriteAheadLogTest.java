@@ -0,0 +1,208 @@
+package com.oocl.cultivation.test;
+
+import com.oocl.cultivation.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @Test
+    void should_restore_occupied_positions_after_restart() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        ParkingLot parkingLot = new ParkingLot(3);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, parkingLot)) {
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+            parkingBoy.park(new Car());
+            ParkingTicket ticket = parkingBoy.park(new Car());
+            parkingBoy.fetch(ticket);
+            assertEquals(3, writeAheadLog.getRecordCount());
+        }
+
+        ParkingLot restoredParkingLot = new ParkingLot(3);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, restoredParkingLot)) {
+            assertEquals(3, writeAheadLog.getRecordCount());
+            assertEquals(2, restoredParkingLot.getAvailableParkingPosition());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_fetch_car_with_recovered_ticket_number_after_restart() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        ParkingLot[] parkingLots = {new SlotArrayParkingLot(1), new ConcurrentParkingLot(2)};
+        long ticketNumber;
+        long fetchedTicketNumber;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 4, parkingLots)) {
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLots);
+            ParkingTicket fetchedTicket = parkingBoy.park(new Car());
+            parkingBoy.fetch(fetchedTicket);
+            parkingBoy.park(new Car());
+            ticketNumber = parkingBoy.park(new Car()).getNumber();
+            fetchedTicketNumber = fetchedTicket.getNumber();
+        }
+
+        ParkingLot[] restoredParkingLots = {new SlotArrayParkingLot(1), new ConcurrentParkingLot(2)};
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 4, restoredParkingLots)) {
+            ParkingBoy parkingBoy = new ParkingBoy(restoredParkingLots);
+            ParkingResult<ParkingTicket> recovered = parkingBoy.recoverTicket(ticketNumber);
+
+            assertTrue(recovered.isSuccessful());
+            assertNotNull(parkingBoy.fetch(recovered.getValue()));
+            assertFalse(parkingBoy.recoverTicket(ticketNumber).isSuccessful());
+            assertFalse(parkingBoy.recoverTicket(fetchedTicketNumber).isSuccessful());
+            assertEquals(2, restoredParkingLots[1].getAvailableParkingPosition());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_keep_logging_after_the_replayed_records() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        for (int restart = 0; restart < 2; restart++) {
+            ParkingLot parkingLot = new ParkingLot(2);
+            try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 8, parkingLot)) {
+                new ParkingBoy(parkingLot).park(new Car());
+            }
+        }
+
+        ParkingLot restoredParkingLot = new ParkingLot(2);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 8, restoredParkingLot)) {
+            assertEquals(2, writeAheadLog.getRecordCount());
+            assertEquals(0, restoredParkingLot.getAvailableParkingPosition());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_restore_from_snapshot_and_log_tail_after_restart() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        ParkingLot[] parkingLots = {new ParkingLot(2), new SlotArrayParkingLot(2)};
+        long ticketNumber;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 16, parkingLots)) {
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLots);
+            ParkingTicket fetchedTicket = parkingBoy.park(new Car());
+            parkingBoy.park(new Car());
+            ticketNumber = parkingBoy.park(new Car()).getNumber();
+
+            assertEquals(3, writeAheadLog.snapshot());
+
+            parkingBoy.fetch(fetchedTicket);
+            parkingBoy.park(new Car());
+        }
+
+        ParkingLot[] restoredParkingLots = {new ParkingLot(2), new SlotArrayParkingLot(2)};
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 16, restoredParkingLots)) {
+            ParkingBoy parkingBoy = new ParkingBoy(restoredParkingLots);
+
+            assertTrue(Files.exists(writeAheadLog.getSnapshotPath()));
+            assertEquals(5, writeAheadLog.getRecordCount());
+            assertEquals(0, restoredParkingLots[0].getAvailableParkingPosition());
+            assertEquals(1, restoredParkingLots[1].getAvailableParkingPosition());
+            assertTrue(parkingBoy.recoverTicket(ticketNumber).isSuccessful());
+            Files.delete(writeAheadLog.getSnapshotPath());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_take_snapshots_periodically_while_parking() throws Exception {
+        Path path = Files.createTempFile("parking", ".wal");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ParkingLot parkingLot = new ConcurrentParkingLot(100);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 16, parkingLot)) {
+            writeAheadLog.scheduleSnapshots(scheduler, 1, TimeUnit.MILLISECONDS);
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+            for (int count = 0; count < 100; count++) {
+                parkingBoy.park(new Car());
+            }
+            scheduler.shutdown();
+            assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+        }
+
+        ParkingLot restoredParkingLot = new ConcurrentParkingLot(100);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 16, restoredParkingLot)) {
+            assertEquals(100, writeAheadLog.getRecordCount());
+            assertEquals(0, restoredParkingLot.getAvailableParkingPosition());
+            Files.deleteIfExists(writeAheadLog.getSnapshotPath());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_drop_logged_records_once_snapshot_is_taken() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        ParkingLot parkingLot = new SlotArrayParkingLot(1000);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 64, parkingLot)) {
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+            for (int count = 0; count < 1000; count++) {
+                parkingBoy.park(new Car());
+            }
+
+            assertEquals(1000, writeAheadLog.snapshot());
+            assertEquals(16, Files.size(path));
+            parkingBoy.fetch(parkingBoy.park(new Car()));
+        }
+
+        ParkingLot restoredParkingLot = new SlotArrayParkingLot(1000);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 64, restoredParkingLot)) {
+            assertEquals(1000, writeAheadLog.getRecordCount());
+            assertEquals(0, restoredParkingLot.getAvailableParkingPosition());
+            Files.delete(writeAheadLog.getSnapshotPath());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_recover_records_of_a_rotated_log_when_snapshot_was_interrupted() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        Path previousPath = path.resolveSibling(path.getFileName() + ".previous");
+        ParkingLot parkingLot = new ParkingLot(3);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, parkingLot)) {
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+            parkingBoy.park(new Car());
+            parkingBoy.park(new Car());
+        }
+        Files.move(path, previousPath);
+
+        ParkingLot restoredParkingLot = new ParkingLot(3);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, restoredParkingLot)) {
+            assertEquals(2, writeAheadLog.getRecordCount());
+            assertEquals(1, restoredParkingLot.getAvailableParkingPosition());
+            assertFalse(Files.exists(previousPath));
+            assertTrue(Files.exists(writeAheadLog.getSnapshotPath()));
+            Files.delete(writeAheadLog.getSnapshotPath());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void should_restore_car_parked_into_position_reserved_before_snapshot() throws IOException {
+        Path path = Files.createTempFile("parking", ".wal");
+        ParkingLot parkingLot = new ParkingLot(2);
+        long ticketNumber;
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, parkingLot)) {
+            ParkingBoy parkingBoy = new ParkingBoy(parkingLot);
+            Reservation reservation = parkingBoy.tryReserve(60_000).getValue();
+            writeAheadLog.snapshot();
+            ticketNumber = parkingBoy.tryParkReserved(reservation, new Car()).getValue().getNumber();
+        }
+
+        ParkingLot restoredParkingLot = new ParkingLot(2);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(path, 1, restoredParkingLot)) {
+            ParkingBoy parkingBoy = new ParkingBoy(restoredParkingLot);
+
+            assertEquals(1, restoredParkingLot.getAvailableParkingPosition());
+            assertTrue(parkingBoy.recoverTicket(ticketNumber).isSuccessful());
+            Files.delete(writeAheadLog.getSnapshotPath());
+        }
+        Files.delete(path);
+    }
+}